@@ -0,0 +1,93 @@
+package com.github.hariprasanths.floatingtoast;
+
+import com.github.hariprasanths.floatingtoast.benchmark.BenchmarkRule;
+import com.github.hariprasanths.floatingtoast.benchmark.BenchmarkState;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cost of stepping {@link ToastAnimationDriver} with 1, 10 and 100 simultaneous
+ * toasts. Every iteration steps {@value #FRAMES_PER_ITERATION} frames. The toasts
+ * apply the values to plain fields, so only the driver itself is measured.
+ * <p>
+ * In the library's package, as the driver is not part of its public API.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ToastAnimationDriverBenchmark {
+
+    private static final int FRAMES_PER_ITERATION = 100;
+    private static final long FRAME_MILLIS = 16;
+    // Long enough that no toast ends while measuring.
+    private static final long DURATION_MILLIS = 24 * 60 * 60 * 1000;
+
+    private static volatile float sink;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void stepFramesOneToast() {
+        stepFrames(1);
+    }
+
+    @Test
+    public void stepFramesTenToasts() {
+        stepFrames(10);
+    }
+
+    @Test
+    public void stepFramesHundredToasts() {
+        stepFrames(100);
+    }
+
+    private void stepFrames(int toastCount) {
+        ToastAnimationDriver driver = new ToastAnimationDriver(new ManualFrameClock());
+        BenchmarkTimeline[] timelines = new BenchmarkTimeline[toastCount];
+        for (int i = 0; i < toastCount; i++) {
+            timelines[i] = new BenchmarkTimeline();
+            timelines[i].set(DURATION_MILLIS, 200, DURATION_MILLIS, 40);
+            driver.start(timelines[i]);
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        long frameTime = 0;
+        while (state.keepRunning()) {
+            for (int frame = 0; frame < FRAMES_PER_ITERATION; frame++) {
+                driver.doFrame(frameTime);
+                frameTime += FRAME_MILLIS;
+            }
+        }
+
+        assertEquals(toastCount, driver.getRunningCount());
+        float sum = 0;
+        for (BenchmarkTimeline timeline : timelines)
+            sum += timeline.translationY + timeline.alpha;
+        sink = sum;
+    }
+
+    private static class BenchmarkTimeline extends ToastAnimationDriver.Timeline {
+        float translationY;
+        float alpha;
+
+        @Override
+        void onFrame(float translationY, float alpha) {
+            this.translationY = translationY;
+            this.alpha = alpha;
+        }
+
+        @Override
+        void onEnd() {
+        }
+    }
+
+    private static class ManualFrameClock implements ToastAnimationDriver.FrameClock {
+        @Override
+        public void postFrame(ToastAnimationDriver driver) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Gives every benchmark method a fresh {@link BenchmarkState} and, once the method
+ * has passed, writes its timings to {@code <output>/<class>.<method>.json}, with
+ * {@code <output>} taken from the {@value #OUTPUT_PROPERTY} system property.
+ * <p>
+ * Iteration counts come from the {@value #WARMUP_PROPERTY} and
+ * {@value #ITERATIONS_PROPERTY} system properties.
+ */
+public final class BenchmarkRule implements TestRule {
+
+    static final String OUTPUT_PROPERTY = "floatingtoast.benchmark.output";
+    static final String WARMUP_PROPERTY = "floatingtoast.benchmark.warmup";
+    static final String ITERATIONS_PROPERTY = "floatingtoast.benchmark.iterations";
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 20;
+    private static final int DEFAULT_MEASURED_ITERATIONS = 50;
+
+    private BenchmarkState state;
+
+    public BenchmarkState getState() {
+        if(state == null)
+            throw new IllegalStateException("getState() must be called from a test method");
+        return state;
+    }
+
+    @Override
+    public Statement apply(final Statement base, final Description description) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                state = new BenchmarkState(
+                        Integer.getInteger(WARMUP_PROPERTY, DEFAULT_WARMUP_ITERATIONS),
+                        Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_MEASURED_ITERATIONS));
+                try {
+                    base.evaluate();
+                    if(!state.isFinished())
+                        throw new IllegalStateException(description.getMethodName()
+                                + " must loop on keepRunning() until it returns false");
+                    report(description, state);
+                } finally {
+                    state = null;
+                }
+            }
+        };
+    }
+
+    private static void report(Description description, BenchmarkState state) throws IOException {
+        long[] sorted = state.getSortedRuns();
+        String className = description.getClassName();
+        String name = description.getMethodName();
+
+        System.out.println(String.format(Locale.US, "%s.%s: median %,d ns, min %,d ns, max %,d ns",
+                description.getTestClass().getSimpleName(), name,
+                median(sorted), sorted[0], sorted[sorted.length - 1]));
+
+        String output = System.getProperty(OUTPUT_PROPERTY);
+        if(output == null)
+            return;
+
+        File directory = new File(output);
+        if(!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Can not create " + directory);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n")
+                .append("  \"benchmarks\": [\n")
+                .append("    {\n")
+                .append("      \"name\": \"").append(name).append("\",\n")
+                .append("      \"className\": \"").append(className).append("\",\n")
+                .append("      \"warmupIterations\": ").append(state.getWarmupIterations()).append(",\n")
+                .append("      \"repeatIterations\": ").append(sorted.length).append(",\n")
+                .append("      \"metrics\": {\n")
+                .append("        \"timeNs\": {\n")
+                .append("          \"minimum\": ").append(sorted[0]).append(",\n")
+                .append("          \"maximum\": ").append(sorted[sorted.length - 1]).append(",\n")
+                .append("          \"median\": ").append(median(sorted)).append(",\n")
+                .append("          \"runs\": [");
+        long[] runs = state.getRuns();
+        for (int i = 0; i < runs.length; i++) {
+            if(i > 0)
+                json.append(", ");
+            json.append(runs[i]);
+        }
+        json.append("]\n")
+                .append("        }\n")
+                .append("      }\n")
+                .append("    }\n")
+                .append("  ]\n")
+                .append("}\n");
+
+        File file = new File(directory, className + "." + name + ".json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            writer.write(json.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        int middle = sorted.length / 2;
+        if(sorted.length % 2 == 1)
+            return sorted[middle];
+        return (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
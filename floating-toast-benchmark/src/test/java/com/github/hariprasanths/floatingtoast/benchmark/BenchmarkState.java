@@ -0,0 +1,82 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Measures the body of a {@code while (state.keepRunning())} loop, one timing per
+ * iteration, after a number of warmup iterations that are not recorded. Work that
+ * should not be measured goes between {@link #pauseTiming()} and {@link #resumeTiming()}.
+ */
+public final class BenchmarkState {
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final long[] runs;
+
+    private int iteration = 0;
+    private long iterationStart;
+    private long pauseStart;
+    private long pausedNanos;
+    private boolean isPaused = false;
+
+    BenchmarkState(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = Math.max(0, warmupIterations);
+        this.measuredIterations = Math.max(1, measuredIterations);
+        this.runs = new long[this.measuredIterations];
+    }
+
+    public boolean keepRunning() {
+        long now = System.nanoTime();
+        if(isPaused)
+            throw new IllegalStateException("resumeTiming() must be called before the end of an iteration");
+
+        if(iteration > warmupIterations)
+            runs[iteration - warmupIterations - 1] = now - iterationStart - pausedNanos;
+
+        if(iteration == warmupIterations + measuredIterations)
+            return false;
+
+        iteration++;
+        pausedNanos = 0;
+        iterationStart = System.nanoTime();
+        return true;
+    }
+
+    public void pauseTiming() {
+        if(isPaused)
+            throw new IllegalStateException("pauseTiming() called twice");
+        isPaused = true;
+        pauseStart = System.nanoTime();
+    }
+
+    public void resumeTiming() {
+        if(!isPaused)
+            throw new IllegalStateException("resumeTiming() called without pauseTiming()");
+        pausedNanos += System.nanoTime() - pauseStart;
+        isPaused = false;
+    }
+
+    boolean isFinished() {
+        return iteration == warmupIterations + measuredIterations;
+    }
+
+    int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    /**
+     * @return The timings of the measured iterations, in nanoseconds, sorted.
+     */
+    long[] getSortedRuns() {
+        long[] sorted = Arrays.copyOf(runs, runs.length);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * @return The timings of the measured iterations, in nanoseconds, in run order.
+     */
+    long[] getRuns() {
+        return Arrays.copyOf(runs, runs.length);
+    }
+}
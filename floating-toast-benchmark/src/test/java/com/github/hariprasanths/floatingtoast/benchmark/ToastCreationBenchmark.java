@@ -0,0 +1,48 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.github.hariprasanths.floatingtoast.FloatingToast;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Cost of {@code makeToast(...)}. The window is only taken from the pool and styled
+ * when the toast is shown, see {@link ToastShowBenchmark}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ToastCreationBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Activity activity;
+    private View anchor;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        anchor = new View(activity);
+        activity.setContentView(anchor);
+    }
+
+    @Test
+    public void makeToastFromActivity() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            FloatingToast.makeToast(activity, "Benchmark", FloatingToast.LENGTH_QUICK);
+    }
+
+    @Test
+    public void makeToastFromView() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            FloatingToast.makeToast(anchor, "Benchmark", FloatingToast.LENGTH_QUICK);
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import com.github.hariprasanths.floatingtoast.FloatingToast;
+
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps the paused main looper of Robolectric through the life of a toast.
+ * Time on the looper is simulated, only the work done on it is measured.
+ */
+final class ToastLifecycle {
+
+    static final long FRAME_MILLIS = 16;
+
+    // Longer than any toast of the benchmarks: LENGTH_TOO_LONG, stand by and FADE_DURATION_TOO_LONG.
+    private static final long LIFETIME_MILLIS = 5000;
+
+    private ToastLifecycle() {
+    }
+
+    /**
+     * Runs the main looper for one frame, which draws the first frame of a toast
+     * that has just been shown.
+     */
+    static void runFrame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the main looper until every shown toast has been dismissed.
+     */
+    static void runUntilDismissed() {
+        ShadowLooper.idleMainLooper(LIFETIME_MILLIS, TimeUnit.MILLISECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * Shows the toast and runs it to its end, which hands its window back to the pool.
+     */
+    static void showAndDismiss(FloatingToast toast) {
+        toast.show();
+        runUntilDismissed();
+    }
+}
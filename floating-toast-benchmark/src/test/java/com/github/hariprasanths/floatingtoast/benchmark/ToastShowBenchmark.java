@@ -0,0 +1,136 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.view.View;
+
+import com.github.hariprasanths.floatingtoast.FloatingToast;
+import com.github.hariprasanths.floatingtoast.FloatingToastSpec;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Cost of showing a toast: from {@code show()} to its first animation frame, and
+ * its full lifecycle from {@code makeToast(...)} to the window being back in the pool.
+ * The styled variants compare a shared {@link FloatingToastSpec} with the same style
+ * set through the setters of every toast.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ToastShowBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Activity activity;
+    private View anchor;
+    private FloatingToastSpec spec;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        anchor = new View(activity);
+        activity.setContentView(anchor);
+        spec = new FloatingToastSpec.Builder()
+                .setGravity(FloatingToast.GRAVITY_MID_TOP)
+                .setTextColor(Color.RED)
+                .setTextStyle(FloatingToast.STYLE_BOLD)
+                .setTextSizeInSp(18)
+                .setShadowLayer(4, 2, 2, Color.BLACK)
+                .build();
+    }
+
+    @Test
+    public void showToFirstFrameFromActivity() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            FloatingToast toast = FloatingToast.makeToast(activity, "Benchmark", FloatingToast.LENGTH_QUICK);
+            state.resumeTiming();
+
+            toast.show();
+            ToastLifecycle.runFrame();
+
+            state.pauseTiming();
+            ToastLifecycle.runUntilDismissed();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void showToFirstFrameFromView() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            FloatingToast toast = FloatingToast.makeToast(anchor, "Benchmark", FloatingToast.LENGTH_QUICK);
+            state.resumeTiming();
+
+            toast.show();
+            ToastLifecycle.runFrame();
+
+            state.pauseTiming();
+            ToastLifecycle.runUntilDismissed();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void showToFirstFrameWithSpec() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            FloatingToast.makeToast(anchor, "Benchmark", FloatingToast.LENGTH_QUICK, spec).show();
+            ToastLifecycle.runFrame();
+
+            state.pauseTiming();
+            ToastLifecycle.runUntilDismissed();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void showToFirstFrameWithSetters() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            FloatingToast.makeToast(anchor, "Benchmark", FloatingToast.LENGTH_QUICK)
+                    .setGravity(FloatingToast.GRAVITY_MID_TOP)
+                    .setTextColor(Color.RED)
+                    .setTextStyle(FloatingToast.STYLE_BOLD)
+                    .setTextSizeInSp(18)
+                    .setShadowLayer(4, 2, 2, Color.BLACK)
+                    .show();
+            ToastLifecycle.runFrame();
+
+            state.pauseTiming();
+            ToastLifecycle.runUntilDismissed();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void fullLifecycleFromActivity() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            ToastLifecycle.showAndDismiss(FloatingToast.makeToast(activity, "Benchmark", FloatingToast.LENGTH_QUICK));
+    }
+
+    @Test
+    public void fullLifecycleFromView() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            ToastLifecycle.showAndDismiss(FloatingToast.makeToast(anchor, "Benchmark", FloatingToast.LENGTH_QUICK));
+    }
+
+    @Test
+    public void fullLifecycleInOverlay() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            FloatingToast toast = FloatingToast.makeToast(activity, "Benchmark", FloatingToast.LENGTH_QUICK);
+            toast.setWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+            ToastLifecycle.showAndDismiss(toast);
+        }
+    }
+}
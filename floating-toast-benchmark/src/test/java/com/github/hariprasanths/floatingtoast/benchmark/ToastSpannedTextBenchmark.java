@@ -0,0 +1,112 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.graphics.drawable.ColorDrawable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.ImageSpan;
+import android.text.style.StyleSpan;
+import android.view.View;
+
+import com.github.hariprasanths.floatingtoast.FloatingToast;
+import com.github.hariprasanths.floatingtoast.FloatingToastSpec;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Cost of showing span-heavy messages (icons, bold counts and colors) compared
+ * with the same messages as plain text, from {@code makeToast(...)} to the first
+ * animation frame. Every iteration alternates between two messages, so that the
+ * pooled window always lays out a new text.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ToastSpannedTextBenchmark {
+
+    private static final String[] MESSAGES = {
+            "  3 items added to your cart, 2 saved for later  ",
+            "  5 photos uploaded, 1 waiting for Wi-Fi  "
+    };
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private View anchor;
+    private CharSequence[] spannedMessages;
+    private FloatingToastSpec singlePass;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        anchor = new View(activity);
+        activity.setContentView(anchor);
+        spannedMessages = new CharSequence[MESSAGES.length];
+        for (int i = 0; i < MESSAGES.length; i++)
+            spannedMessages[i] = spanned(MESSAGES[i]);
+        singlePass = new FloatingToastSpec.Builder()
+                .setTextRenderer(FloatingToast.TEXT_RENDERER_SINGLE_PASS)
+                .build();
+    }
+
+    @Test
+    public void plainText() {
+        show(MESSAGES, null);
+    }
+
+    @Test
+    public void spannedText() {
+        show(spannedMessages, null);
+    }
+
+    @Test
+    public void plainTextSinglePass() {
+        show(MESSAGES, singlePass);
+    }
+
+    @Test
+    public void spannedTextSinglePass() {
+        show(spannedMessages, singlePass);
+    }
+
+    private void show(CharSequence[] messages, FloatingToastSpec spec) {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            FloatingToast.makeToast(anchor, messages[i++ % messages.length], FloatingToast.LENGTH_QUICK, spec).show();
+            ToastLifecycle.runFrame();
+
+            state.pauseTiming();
+            ToastLifecycle.runUntilDismissed();
+            state.resumeTiming();
+        }
+    }
+
+    /**
+     * An icon at each end, a bold colored count and a colored second part.
+     */
+    private static CharSequence spanned(String message) {
+        SpannableStringBuilder text = new SpannableStringBuilder(message);
+        text.setSpan(new ImageSpan(icon(Color.GREEN)), 0, 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        text.setSpan(new ImageSpan(icon(Color.YELLOW)), message.length() - 1, message.length(),
+                Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        text.setSpan(new StyleSpan(Typeface.BOLD), 2, 3, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        text.setSpan(new ForegroundColorSpan(Color.CYAN), 2, 3, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        int comma = message.indexOf(',');
+        text.setSpan(new ForegroundColorSpan(Color.LTGRAY), comma + 1, message.length() - 2,
+                Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        return text;
+    }
+
+    private static ColorDrawable icon(int color) {
+        ColorDrawable icon = new ColorDrawable(color);
+        icon.setBounds(0, 0, 40, 40);
+        return icon;
+    }
+}
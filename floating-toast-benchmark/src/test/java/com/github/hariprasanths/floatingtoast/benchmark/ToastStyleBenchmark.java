@@ -0,0 +1,205 @@
+package com.github.hariprasanths.floatingtoast.benchmark;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+
+import com.github.hariprasanths.floatingtoast.FloatingToast;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Cost of each style setter. Setters only record the style, which is applied to
+ * the window once, when the toast is shown. Every setter alternates between two
+ * values, so that no call is a no-op.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ToastStyleBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private FloatingToast toast;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        toast = FloatingToast.makeToast(activity, "Benchmark", FloatingToast.LENGTH_QUICK);
+    }
+
+    @Test
+    public void setGravity() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setGravity(flip ? FloatingToast.GRAVITY_MID_TOP : FloatingToast.GRAVITY_BOTTOM);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setGravityWithOffsets() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setGravity(flip ? FloatingToast.GRAVITY_TOP : FloatingToast.GRAVITY_BOTTOM, 0, flip ? 100 : 200);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setFadeOutDuration() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setFadeOutDuration(flip ? FloatingToast.FADE_DURATION_SHORT : FloatingToast.FADE_DURATION_LONG);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextColor() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextColor(flip ? Color.RED : Color.BLUE);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextTypeface() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextTypeface(flip ? Typeface.SERIF : Typeface.MONOSPACE);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextStyle() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextStyle(flip ? FloatingToast.STYLE_BOLD : FloatingToast.STYLE_NORMAL);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextSizeInSp() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextSizeInSp(flip ? 14 : 18);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextSizeInDp() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextSizeInDp(flip ? 14 : 18);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextSizeCustomUnit() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextSizeCustomUnit(TypedValue.COMPLEX_UNIT_PX, flip ? 40 : 48);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setFloatDistance() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setFloatDistance(flip ? FloatingToast.DISTANCE_SHORT : FloatingToast.DISTANCE_LONG);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setFloatMotion() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setFloatMotion(flip ? FloatingToast.FLOAT_MOTION_SPRING : FloatingToast.FLOAT_MOTION_FLING);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setStandByDuration() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setStandByDuration(flip ? 100 : 300);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setShadowLayer() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setShadowLayer(flip ? 4 : 8, 2, 2, Color.BLACK);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setBackgroundBlur() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setBackgroundBlur(flip);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setTextRenderer() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setTextRenderer(flip ? FloatingToast.TEXT_RENDERER_LAYERED : FloatingToast.TEXT_RENDERER_SINGLE_PASS);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setAnimationEngine() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setAnimationEngine(flip ? FloatingToast.ANIMATION_ENGINE_DEFAULT : FloatingToast.ANIMATION_ENGINE_HARDWARE_LAYER);
+            flip = !flip;
+        }
+    }
+
+    @Test
+    public void setWindowMode() {
+        BenchmarkState state = benchmarkRule.getState();
+        boolean flip = false;
+        while (state.keepRunning()) {
+            toast.setWindowMode(flip ? FloatingToast.WINDOW_MODE_DIALOG : FloatingToast.WINDOW_MODE_OVERLAY);
+            flip = !flip;
+        }
+    }
+}
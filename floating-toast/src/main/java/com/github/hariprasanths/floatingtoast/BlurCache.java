@@ -0,0 +1,156 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.graphics.Bitmap;
+import android.graphics.Typeface;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of pre-rendered blur halos, bounded by the total size of the cached
+ * bitmaps in bytes. Toasts showing the same message with the same style share one
+ * halo bitmap, so the blurred passes are rasterized once instead of on every frame.
+ * <p>
+ * Must only be used from the main thread.
+ */
+final class BlurCache {
+
+    static final int DEFAULT_MAX_SIZE_IN_BYTES = 2 * 1024 * 1024;
+
+    private static final BlurCache instance = new BlurCache(DEFAULT_MAX_SIZE_IN_BYTES);
+
+    private final LinkedHashMap<Key, Bitmap> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxSizeInBytes;
+    private int sizeInBytes;
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+
+    BlurCache(int maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    static BlurCache getInstance() {
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return maxSizeInBytes > 0;
+    }
+
+    Bitmap get(Key key) {
+        Bitmap bitmap = entries.get(key);
+        if(bitmap != null)
+            hitCount++;
+        else
+            missCount++;
+        return bitmap;
+    }
+
+    void put(Key key, Bitmap bitmap) {
+        int size = sizeOf(bitmap);
+        if(size > maxSizeInBytes)
+            return;
+
+        Bitmap previous = entries.put(key, bitmap);
+        sizeInBytes += size;
+        if(previous != null)
+            sizeInBytes -= sizeOf(previous);
+        trimToSize(maxSizeInBytes);
+    }
+
+    void setMaxSizeInBytes(int maxSizeInBytes) {
+        this.maxSizeInBytes = Math.max(0, maxSizeInBytes);
+        trimToSize(this.maxSizeInBytes);
+    }
+
+    BlurCacheStats getStats() {
+        return new BlurCacheStats(hitCount, missCount, evictionCount,
+                entries.size(), sizeInBytes, maxSizeInBytes);
+    }
+
+    private void trimToSize(int maxSize) {
+        Iterator<Map.Entry<Key, Bitmap>> iterator = entries.entrySet().iterator();
+        while (sizeInBytes > maxSize && iterator.hasNext()) {
+            Map.Entry<Key, Bitmap> eldest = iterator.next();
+            sizeInBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static int sizeOf(Bitmap bitmap) {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * Everything that affects how a halo is rasterized.
+     */
+    static final class Key {
+        private final String text;
+        private final float textSize;
+        private final Typeface typeface;
+        private final boolean isFakeBold;
+        private final float textSkewX;
+        private final int width;
+        private final int color;
+        private final float shadowRadius;
+        private final float shadowDx;
+        private final float shadowDy;
+        private final int shadowColor;
+        private final int hashCode;
+
+        Key(String text, float textSize, Typeface typeface, boolean isFakeBold, float textSkewX,
+            int width, int color, float shadowRadius, float shadowDx, float shadowDy, int shadowColor) {
+            this.text = text;
+            this.textSize = textSize;
+            this.typeface = typeface;
+            this.isFakeBold = isFakeBold;
+            this.textSkewX = textSkewX;
+            this.width = width;
+            this.color = color;
+            this.shadowRadius = shadowRadius;
+            this.shadowDx = shadowDx;
+            this.shadowDy = shadowDy;
+            this.shadowColor = shadowColor;
+
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + (isFakeBold ? 1 : 0);
+            result = 31 * result + Float.floatToIntBits(textSkewX);
+            result = 31 * result + width;
+            result = 31 * result + color;
+            result = 31 * result + Float.floatToIntBits(shadowRadius);
+            result = 31 * result + Float.floatToIntBits(shadowDx);
+            result = 31 * result + Float.floatToIntBits(shadowDy);
+            result = 31 * result + shadowColor;
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && textSize == key.textSize
+                    && isFakeBold == key.isFakeBold
+                    && textSkewX == key.textSkewX
+                    && width == key.width
+                    && color == key.color
+                    && shadowRadius == key.shadowRadius
+                    && shadowDx == key.shadowDx
+                    && shadowDy == key.shadowDy
+                    && shadowColor == key.shadowColor
+                    && (typeface != null ? typeface.equals(key.typeface) : key.typeface == null)
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.hariprasanths.floatingtoast;
+
+/**
+ * Snapshot of the blur halo cache counters.
+ *
+ * @see FloatingToast#getBlurCacheStats()
+ */
+public final class BlurCacheStats {
+
+    private final int hitCount;
+    private final int missCount;
+    private final int evictionCount;
+    private final int entryCount;
+    private final int sizeInBytes;
+    private final int maxSizeInBytes;
+
+    BlurCacheStats(int hitCount, int missCount, int evictionCount,
+                   int entryCount, int sizeInBytes, int maxSizeInBytes) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.sizeInBytes = sizeInBytes;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * @return Number of times a toast reused a cached halo.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of times a halo had to be rendered.
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Number of halos dropped to stay within the byte budget.
+     */
+    public int getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public int getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public int getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BlurCacheStats{hits=" + hitCount
+                + ", misses=" + missCount
+                + ", evictions=" + evictionCount
+                + ", entries=" + entryCount
+                + ", size=" + sizeInBytes + "/" + maxSizeInBytes + "}";
+    }
+}
@@ -1,45 +1,69 @@
 package com.github.hariprasanths.floatingtoast;
 
+import android.animation.TimeInterpolator;
 import android.app.Activity;
-import android.app.Application;
-import android.app.Dialog;
 import android.content.Context;
 import android.content.ContextWrapper;
 import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Rect;
 import android.graphics.Typeface;
-import android.os.Bundle;
-import android.os.Handler;
-import android.util.DisplayMetrics;
+import android.os.Build;
+import android.os.Looper;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.text.TextUtils;
+import android.util.Log;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.Window;
-import android.view.WindowManager;
-import android.widget.LinearLayout;
+import android.view.ViewConfiguration;
+import android.view.ViewTreeObserver;
 import android.widget.TextView;
 
-import androidx.annotation.NonNull;
 import androidx.annotation.StringRes;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 
 import java.lang.ref.WeakReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 public class FloatingToast implements FloatingToastStyle{
 
+    private static final String TAG = "FloatingToast";
+
     private WeakReference<Activity> activity;
     private WeakReference<View> view;
     private int duration;
-    private int standByDuration = 200;
-    private int fadeOutDuration = FADE_DURATION_MEDIUM;
-    private Dialog dialog;
-    private WindowManager.LayoutParams layoutParams;
-    private TextView messageTextView;
-    private TextView blurViewRight;
-    private TextView blurViewLeft;
+    private CharSequence messageText;
+    private ScheduledToast scheduledToast;
+    private ToastLifecycleRegistry.Entry lifecycleEntry;
+    private FloatingToastSpec spec;
+    private FloatingToastSpec.Builder style;
+    private ToastWindow window;
+    private boolean isShownAtTouchPosition = false;
+    private boolean hasTouchPosition = false;
+    private int touchX;
+    private int touchY;
     private boolean isTouchInsideView = true;
-    private float translationDistance = DISTANCE_MEDIUM;
+    private TouchPositionListener touchPositionListener;
+    private Rect anchorRect;
+    private OnFramesRenderedListener onFramesRenderedListener;
+    private FrameCounter frameCounter;
+    private ViewTreeObserver frameCounterObserver;
+    private boolean isCountingFrames = false;
+    private ToastTimeline timeline;
+    private ToastHandle handle;
+    private ToastTextLoader textLoader;
+    private long madeNanos;
+    private long shownNanos;
+    private long firstFrameNanos;
+    private long fadeStartNanos;
+    private int dismissReason;
+    private final int traceCookie = ToastTrace.newCookie();
+    private boolean isLifetimeTraced = false;
+    private String tracePhase;
 
     /**
      * Duration of the toast being shown. This time could be user-definable.
@@ -91,9 +115,95 @@ public class FloatingToast implements FloatingToastStyle{
     public static final int STYLE_NORMAL = Typeface.NORMAL;
     public static final int STYLE_BOLD_ITALIC = Typeface.BOLD_ITALIC;
 
+    /**
+     * How the text and its blurred background are drawn. This could be
+     * user-definable. Default is {@link #TEXT_RENDERER_LAYERED}
+     * <p>
+     * {@link #TEXT_RENDERER_LAYERED} stacks three TextViews, one per pass.
+     * {@link #TEXT_RENDERER_SINGLE_PASS} lays out the text once in a
+     * {@link FloatingToastView} and draws all three passes from that layout.
+     * @see #setTextRenderer(int)
+     */
+    public static final int TEXT_RENDERER_LAYERED = 0;
+    public static final int TEXT_RENDERER_SINGLE_PASS = 1;
+
+    /**
+     * How the float and fade animation is rendered. This could be
+     * user-definable. Default is {@link #ANIMATION_ENGINE_DEFAULT}
+     * <p>
+     * {@link #ANIMATION_ENGINE_HARDWARE_LAYER} renders the toast into a hardware
+     * layer while it is animating, so that the text and its shadows are not
+     * redrawn on every frame of the animation.
+     * @see #setAnimationEngine(int)
+     */
+    public static final int ANIMATION_ENGINE_DEFAULT = 0;
+    public static final int ANIMATION_ENGINE_HARDWARE_LAYER = 1;
+
+    /**
+     * Curve along which the toast floats up. This could be user-definable.
+     * Default is {@link #FLOAT_MOTION_EASE}
+     * <p>
+     * {@link #FLOAT_MOTION_EASE} accelerates, then decelerates.<br/>
+     * {@link #FLOAT_MOTION_SPRING} moves like a spring: it overshoots the float
+     * distance, then settles.<br/>
+     * {@link #FLOAT_MOTION_FLING} starts fast, then slows down like a flung view.
+     * @see #setFloatMotion(int)
+     * @see #setFloatInterpolator(TimeInterpolator)
+     */
+    public static final int FLOAT_MOTION_EASE = 0;
+    public static final int FLOAT_MOTION_SPRING = 1;
+    public static final int FLOAT_MOTION_FLING = 2;
+
+    /**
+     * Time the toast stands still between floating up and fading out.
+     * @see #setStandByDuration(int)
+     */
+    public static final int STAND_BY_DURATION_DEFAULT = 200;
+
+    /**
+     * Where the toast is drawn. This could be user-definable.
+     * Default is {@link #WINDOW_MODE_DIALOG}
+     * <p>
+     * {@link #WINDOW_MODE_DIALOG} shows every toast in a {@link android.app.Dialog} window of its own.
+     * {@link #WINDOW_MODE_OVERLAY} draws the toast as a view on top of the activity's
+     * content, without adding a window.
+     * @see #setWindowMode(int)
+     * @see #setDefaultWindowMode(int)
+     */
+    public static final int WINDOW_MODE_DIALOG = 0;
+    public static final int WINDOW_MODE_OVERLAY = 1;
+
+    private static int defaultWindowMode = WINDOW_MODE_DIALOG;
+    private static final FloatingToastSpec[] defaultSpecs = new FloatingToastSpec[2];
+
+    /**
+     * Interface definition for a callback to be invoked when a toast has been
+     * dismissed, with the number of frames its window rendered while it was shown.
+     * Requires API 16, the callback is never invoked on older versions.
+     * <p>
+     * A {@link #WINDOW_MODE_OVERLAY} toast has no window of its own: the count is the
+     * number of frames the activity's window rendered while the toast was shown, which
+     * includes frames drawn only for the activity's views or for other toasts, e.g.
+     * while the toast stands by.
+     */
+    public interface OnFramesRenderedListener {
+        void onFramesRendered(FloatingToast toast, int frameCount);
+    }
+
+    /**
+     * Interface definition for a callback to be invoked once {@link #prewarm(Activity, OnPrewarmedListener)}
+     * has done its work.
+     */
+    public interface OnPrewarmedListener {
+        /**
+         * @param durationNanos Time the main thread spent warming up, in nanoseconds.
+         */
+        void onPrewarmed(Activity activity, long durationNanos);
+    }
+
     /**
      * Make a standard toast that just contains a text view.
-     * (Recommended method over {@link #makeToast(Activity, String, int)}
+     * (Recommended method over {@link #makeToast(Activity, CharSequence, int)}
      *
      * @param view     The view which was used to call the toast.
      * @param text     The text to show.  Can be formatted text.
@@ -104,8 +214,8 @@ public class FloatingToast implements FloatingToastStyle{
      *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
      *
      */
-    public static FloatingToast makeToast(View view, String text, int duration) {
-        return new FloatingToast(view, text, duration);
+    public static FloatingToast makeToast(View view, CharSequence text, int duration) {
+        return new FloatingToast(view, text, duration, null);
     }
 
     /**
@@ -124,7 +234,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     public static FloatingToast makeToast(View view, @StringRes int resId, int duration)
             throws Resources.NotFoundException {
-        return new FloatingToast(view, view.getContext().getResources().getText(resId).toString(), duration);
+        return new FloatingToast(view, view.getContext().getResources().getText(resId), duration, null);
     }
 
     /**
@@ -140,8 +250,8 @@ public class FloatingToast implements FloatingToastStyle{
      *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
      *
      */
-    public static FloatingToast makeToast(Activity activity, String text, int duration) {
-        return new FloatingToast(activity, text, duration);
+    public static FloatingToast makeToast(Activity activity, CharSequence text, int duration) {
+        return new FloatingToast(activity, text, duration, null);
     }
 
     /**
@@ -160,7 +270,287 @@ public class FloatingToast implements FloatingToastStyle{
      */
     public static FloatingToast makeToast(Activity activity, @StringRes int resId, int duration)
             throws Resources.NotFoundException {
-        return new FloatingToast(activity, activity.getResources().getText(resId).toString(), duration);
+        return new FloatingToast(activity, activity.getResources().getText(resId), duration, null);
+    }
+
+    /**
+     * Make a toast with a prebuilt style. The style setters of the returned toast
+     * start from the spec without changing it.
+     * (Recommended method over {@link #makeToast(Activity, CharSequence, int, FloatingToastSpec)}
+     *
+     * @param view     The view which was used to call the toast.
+     * @param text     The text to show.  Can be formatted text.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, usually shared by many toasts.
+     *
+     */
+    public static FloatingToast makeToast(View view, CharSequence text, int duration, FloatingToastSpec spec) {
+        return new FloatingToast(view, text, duration, spec);
+    }
+
+    /**
+     * Make a toast with a prebuilt style and the text from a resource.
+     * (Recommended method over {@link #makeToast(Activity, int, int, FloatingToastSpec)}
+     *
+     * @param view     The view which was used to call the toast.
+     * @param resId    The resource id of the string resource to use.  Can be formatted text.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, usually shared by many toasts.
+     *
+     * @throws Resources.NotFoundException if the resource can't be found.
+     */
+    public static FloatingToast makeToast(View view, @StringRes int resId, int duration, FloatingToastSpec spec)
+            throws Resources.NotFoundException {
+        return new FloatingToast(view, view.getContext().getResources().getText(resId), duration, spec);
+    }
+
+    /**
+     * Make a toast with a prebuilt style.
+     * (Only use this method if not calling from a view)
+     *
+     * @param activity The activity to use.  Usually your {@link android.app.Activity} object.
+     * @param text     The text to show.  Can be formatted text.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, usually shared by many toasts.
+     *
+     */
+    public static FloatingToast makeToast(Activity activity, CharSequence text, int duration, FloatingToastSpec spec) {
+        return new FloatingToast(activity, text, duration, spec);
+    }
+
+    /**
+     * Make a toast with a prebuilt style and the text from a resource.
+     * (Only use this method if not calling from a view)
+     *
+     * @param activity The activity to use.  Usually your {@link android.app.Activity} object.
+     * @param resId    The resource id of the string resource to use.  Can be formatted text.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, usually shared by many toasts.
+     *
+     * @throws Resources.NotFoundException if the resource can't be found.
+     */
+    public static FloatingToast makeToast(Activity activity, @StringRes int resId, int duration, FloatingToastSpec spec)
+            throws Resources.NotFoundException {
+        return new FloatingToast(activity, activity.getResources().getText(resId), duration, spec);
+    }
+
+    /**
+     * Make a toast whose text is resolved off the main thread, e.g. a formatted or
+     * localized string. {@link #show()} runs the text on the executor while the window
+     * is prepared on the main thread, and shows the toast once both are ready.
+     * If the text throws, the toast is not shown: the exception is logged and the
+     * handle's callback is told with {@link FloatingToastMetrics#DISMISS_REASON_TEXT_LOAD_FAILED}.
+     * (Recommended method over {@link #makeToast(Activity, Callable, Executor, int, FloatingToastSpec)}
+     *
+     * @param view     The view which was used to call the toast.
+     * @param text     Returns the text to show. Runs on the executor.
+     * @param executor The executor to run the text on.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, or null for the default one.
+     *
+     */
+    public static FloatingToast makeToast(View view, Callable<? extends CharSequence> text, Executor executor,
+                                          int duration, FloatingToastSpec spec) {
+        FloatingToast toast = new FloatingToast(view, null, duration, spec);
+        toast.loadText(text, executor);
+        return toast;
+    }
+
+    /**
+     * Make a toast whose text is resolved off the main thread.
+     * (Only use this method if not calling from a view)
+     *
+     * @param activity The activity to use.  Usually your {@link android.app.Activity} object.
+     * @param text     Returns the text to show. Runs on the executor.
+     * @param executor The executor to run the text on.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     *                 Either user-defined int or predefined constant duration
+     *                 Available options - {@link #LENGTH_LONG},
+     *                 {@link #LENGTH_MEDIUM}, {@link #LENGTH_SHORT},
+     *                 {@link #LENGTH_TOO_LONG}, {@link #LENGTH_QUICK}
+     * @param spec     The style of the toast, or null for the default one.
+     *
+     * @see #makeToast(View, Callable, Executor, int, FloatingToastSpec)
+     */
+    public static FloatingToast makeToast(Activity activity, Callable<? extends CharSequence> text, Executor executor,
+                                          int duration, FloatingToastSpec spec) {
+        FloatingToast toast = new FloatingToast(activity, null, duration, spec);
+        toast.loadText(text, executor);
+        return toast;
+    }
+
+    /**
+     * Make and show a toast from any thread. The toast is made on the main thread,
+     * together with the other toasts posted since its last message, so that a burst
+     * of toasts from background threads costs a single message to the main looper.
+     *
+     * @param view     The view which was used to call the toast.
+     * @param text     The text to show.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     * @param spec     The style of the toast, or null for the default one. Build it
+     *                 on any thread, but do not share its builder between threads.
+     */
+    public static void post(View view, CharSequence text, int duration, FloatingToastSpec spec) {
+        ToastRequestQueue.getInstance().offer(new ToastRequestQueue.Request(view, null, text, duration, spec));
+    }
+
+    /**
+     * Same as {@link #post(View, CharSequence, int, FloatingToastSpec)}, for toasts not shown
+     * from a view.
+     *
+     * @param activity The activity to use.  Usually your {@link android.app.Activity} object.
+     * @param text     The text to show.
+     * @param duration Duration of the toast to be shown in milliseconds(int).
+     * @param spec     The style of the toast, or null for the default one.
+     */
+    public static void post(Activity activity, CharSequence text, int duration, FloatingToastSpec spec) {
+        ToastRequestQueue.getInstance().offer(new ToastRequestQueue.Request(null, activity, text, duration, spec));
+    }
+
+    /**
+     * Set the maximum number of pre-inflated toast windows kept per activity.
+     * Dismissed toasts return their window to the pool so that subsequent
+     * {@code makeToast} calls can reuse it instead of inflating a new one.
+     * Pools are evicted when their activity is destroyed.
+     *
+     * @param size Maximum number of idle windows per activity. 0 disables pooling.
+     *             Default is 3.
+     */
+    public static void setWindowPoolSize(int size) {
+        ToastWindowPool.setMaxSize(size);
+    }
+
+    /**
+     * Set the window mode of the toasts made from now on.
+     *
+     * @param windowMode Default is {@link #WINDOW_MODE_DIALOG}
+     *                   Available options - {@link #WINDOW_MODE_DIALOG},
+     *                   {@link #WINDOW_MODE_OVERLAY}
+     */
+    public static void setDefaultWindowMode(int windowMode) {
+        if(windowMode == WINDOW_MODE_DIALOG || windowMode == WINDOW_MODE_OVERLAY)
+            defaultWindowMode = windowMode;
+    }
+
+    /**
+     * Set the memory budget of the cache of pre-rendered blur backgrounds used by
+     * {@link #TEXT_RENDERER_SINGLE_PASS}. Toasts showing the same message with the
+     * same style reuse the cached bitmap instead of rasterizing the blur on every frame.
+     *
+     * @param maxSizeInBytes Total size of the cached bitmaps. 0 disables the cache.
+     *                       Default is 2 MB.
+     */
+    public static void setBlurCacheSize(int maxSizeInBytes) {
+        BlurCache.getInstance().setMaxSizeInBytes(maxSizeInBytes);
+    }
+
+    /**
+     * @return Hit, miss and eviction counters of the blur background cache.
+     * @see #setBlurCacheSize(int)
+     */
+    public static BlurCacheStats getBlurCacheStats() {
+        return BlurCache.getInstance().getStats();
+    }
+
+    /**
+     * Set the callback invoked every time a toast is dismissed, with the timestamps
+     * of the phases it went through.
+     *
+     * @param metrics The callback that will run, or null to remove it.
+     */
+    public static void setMetricsListener(FloatingToastMetrics metrics) {
+        ToastMetrics.getInstance().setListener(metrics);
+    }
+
+    /**
+     * @return Shown, dismissed and window pool counters of all the toasts so far.
+     * @see #setMetricsListener(FloatingToastMetrics)
+     */
+    public static FloatingToastStats getToastStats() {
+        return ToastMetrics.getInstance().getStats();
+    }
+
+    /**
+     * Set the number of messages kept with their text layout measured ahead of time.
+     * Applies to {@link #TEXT_RENDERER_LAYERED}: a cached message is set on its three
+     * text views without measuring it again.
+     *
+     * @param maxEntries 0 disables the cache. Default is 16.
+     * @see #setTextPrecomputeExecutor(Executor)
+     */
+    public static void setPrecomputedTextCacheSize(int maxEntries) {
+        ToastTextCache.getInstance().setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Set the executor that measures the text layout of a message the first time it
+     * is shown, so that the next toasts showing it skip measuring it. Toasts made
+     * with a {@link Callable} text measure it on their own executor, along with the text.
+     *
+     * @param executor A background executor, or null to only cache the messages of
+     *                 toasts made with a {@link Callable} text. Default is null.
+     */
+    public static void setTextPrecomputeExecutor(Executor executor) {
+        ToastTextCache.getInstance().setExecutor(executor);
+    }
+
+    /**
+     * Emit trace sections around the work of the toasts, visible in systrace and
+     * Perfetto: making, styling, showing, animating and dismissing a toast, and one
+     * async section per toast spanning from its show to its dismissal, with its float,
+     * stand by and fade phases. Sections need API 18, async sections API 29.
+     * Should be set before any toast is shown.
+     *
+     * @param enabled Default is false.
+     */
+    public static void setTracingEnabled(boolean enabled) {
+        ToastTrace.setTracer(enabled ? ToastTrace.getSystemTracer() : null);
+    }
+
+    /**
+     * Do the work of the first toast of an activity ahead of time, the next time the
+     * main thread is idle: class loading, inflation of a toast window of the default
+     * window mode into the window pool, text layout and font loading. The first
+     * {@code makeToast(...).show()} then costs the same as the following ones.
+     * Must be called from the main thread, e.g. in {@link Activity#onCreate}.
+     *
+     * @param activity The activity toasts will be shown in.
+     */
+    public static void prewarm(Activity activity) {
+        prewarm(activity, null);
+    }
+
+    /**
+     * Same as {@link #prewarm(Activity)}, and reports how long the warm-up took.
+     *
+     * @param activity The activity toasts will be shown in.
+     * @param listener The callback that will run once the warm-up is done, or null.
+     */
+    public static void prewarm(Activity activity, OnPrewarmedListener listener) {
+        ToastPrewarmer prewarmer = new ToastPrewarmer(activity, defaultWindowMode, listener);
+        // Dropped if the activity is destroyed before the main thread is idle.
+        ToastLifecycleRegistry.getInstance(activity).addPrewarmer(activity, prewarmer);
+        Looper.myQueue().addIdleHandler(prewarmer);
     }
 
     /**
@@ -175,26 +565,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setGravity(int gravity) {
-        int screenHeight = getDisplayHeight();
-        Double midHeight = screenHeight * 0.25;
-
-        switch (gravity) {
-            case GRAVITY_MID_TOP:
-                layoutParams.gravity = Gravity.TOP | Gravity.CENTER;
-                layoutParams.y = midHeight.intValue();
-                dialog.getWindow().setAttributes(layoutParams);
-                break;
-
-            case GRAVITY_MID_BOTTOM:
-                layoutParams.gravity = Gravity.BOTTOM | Gravity.CENTER;
-                layoutParams.y = midHeight.intValue();
-                dialog.getWindow().setAttributes(layoutParams);
-                break;
-
-            default:
-                this.dialog.getWindow().setGravity(gravity);
-                break;
-        }
+        style().setGravity(gravity);
         return this;
     }
 
@@ -209,10 +580,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setGravity(int gravity, int xOffset, int yOffset) {
-        layoutParams.gravity = gravity;
-        layoutParams.x = xOffset;
-        layoutParams.y = yOffset;
-        dialog.getWindow().setAttributes(layoutParams);
+        style().setGravity(gravity, xOffset, yOffset);
         return this;
     }
 
@@ -230,7 +598,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setFadeOutDuration(int fadeOutDuration) {
-        this.fadeOutDuration = fadeOutDuration;
+        style().setFadeOutDuration(fadeOutDuration);
         return this;
     }
 
@@ -245,7 +613,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextColor(int color) {
-        updateTextColor(color);
+        style().setTextColor(color);
         return this;
     }
 
@@ -262,7 +630,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextTypeface(Typeface typeface) {
-        updateTextTypeface(typeface);
+        style().setTextTypeface(typeface);
         return this;
     }
 
@@ -282,10 +650,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextStyle(int style) {
-        if(style == STYLE_NORMAL || style == STYLE_BOLD
-                || style == STYLE_BOLD_ITALIC || style == STYLE_ITALIC) {
-            updateTextStyle(style);
-        }
+        style().setTextStyle(style);
         return this;
     }
 
@@ -300,7 +665,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextSizeInSp(float sizeInSp) {
-        updateTextSize(TypedValue.COMPLEX_UNIT_SP, sizeInSp);
+        style().setTextSizeInSp(sizeInSp);
         return this;
     }
 
@@ -315,7 +680,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextSizeInDp(float sizeInDp) {
-        updateTextSize(TypedValue.COMPLEX_UNIT_DIP, sizeInDp);
+        style().setTextSizeInDp(sizeInDp);
         return this;
     }
 
@@ -330,7 +695,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setTextSizeCustomUnit(int unit, float size) {
-        updateTextSize(unit, size);
+        style().setTextSizeCustomUnit(unit, size);
         return this;
     }
 
@@ -341,8 +706,45 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setFloatDistance(float floatDistance) {
-        if(floatDistance > 100) floatDistance = 100;
-        this.translationDistance = floatDistance;
+        style().setFloatDistance(floatDistance);
+        return this;
+    }
+
+    /**
+     * Sets the curve along which the toast floats up.
+     *
+     * @param floatMotion Default is {@link #FLOAT_MOTION_EASE}
+     *                    Available options - {@link #FLOAT_MOTION_EASE},
+     *                    {@link #FLOAT_MOTION_SPRING}, {@link #FLOAT_MOTION_FLING}
+     */
+    @Override
+    public FloatingToastStyle setFloatMotion(int floatMotion) {
+        style().setFloatMotion(floatMotion);
+        return this;
+    }
+
+    /**
+     * Sets a custom curve along which the toast floats up, in place of the float motion.
+     * It is called on every frame of the float, so it should not allocate.
+     *
+     * @param interpolator The curve, from 0 at the start of the float to 1 at its end,
+     *                     or null for the default {@link #FLOAT_MOTION_EASE}.
+     */
+    @Override
+    public FloatingToastStyle setFloatInterpolator(TimeInterpolator interpolator) {
+        style().setFloatInterpolator(interpolator);
+        return this;
+    }
+
+    /**
+     * Sets the time the toast stands still between floating up and fading out.
+     *
+     * @param standByDuration Stand by duration in milliseconds(int).
+     *                        Default is {@link #STAND_BY_DURATION_DEFAULT}
+     */
+    @Override
+    public FloatingToastStyle setStandByDuration(int standByDuration) {
+        style().setStandByDuration(standByDuration);
         return this;
     }
 
@@ -362,8 +764,7 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setShadowLayer(float shadowRadius, float shadowDx, float shadowDy, int shadowColor) {
-        if(shadowRadius > 25) shadowRadius = 25;
-        this.messageTextView.setShadowLayer(shadowRadius, shadowDx, shadowDy, shadowColor);
+        style().setShadowLayer(shadowRadius, shadowDx, shadowDy, shadowColor);
         return this;
     }
 
@@ -374,300 +775,779 @@ public class FloatingToast implements FloatingToastStyle{
      */
     @Override
     public FloatingToastStyle setBackgroundBlur(boolean bool) {
-        if(!bool) {
-            blurViewRight.setVisibility(View.GONE);
-            blurViewLeft.setVisibility(View.GONE);
-        }
+        style().setBackgroundBlur(bool);
+        return this;
+    }
+
+    /**
+     * Sets how the text and its blurred background are drawn.
+     * Both renderers produce the same output.
+     *
+     * @param textRenderer  Default is {@link #TEXT_RENDERER_LAYERED}
+     *                      Available options - {@link #TEXT_RENDERER_LAYERED},
+     *                      {@link #TEXT_RENDERER_SINGLE_PASS}
+     */
+    @Override
+    public FloatingToastStyle setTextRenderer(int textRenderer) {
+        style().setTextRenderer(textRenderer);
+        return this;
+    }
+
+    /**
+     * Sets how the float and fade animation is rendered.
+     *
+     * @param animationEngine Default is {@link #ANIMATION_ENGINE_DEFAULT}
+     *                        Available options - {@link #ANIMATION_ENGINE_DEFAULT},
+     *                        {@link #ANIMATION_ENGINE_HARDWARE_LAYER}
+     */
+    @Override
+    public FloatingToastStyle setAnimationEngine(int animationEngine) {
+        style().setAnimationEngine(animationEngine);
+        return this;
+    }
+
+    /**
+     * Sets where the toast is drawn. The text and style applied so far are kept.
+     *
+     * @param windowMode Default is the one set by {@link #setDefaultWindowMode(int)},
+     *                   {@link #WINDOW_MODE_DIALOG} unless changed.
+     *                   Available options - {@link #WINDOW_MODE_DIALOG},
+     *                   {@link #WINDOW_MODE_OVERLAY}
+     */
+    @Override
+    public FloatingToastStyle setWindowMode(int windowMode) {
+        style().setWindowMode(windowMode);
+        return this;
+    }
+
+    /**
+     * Register a callback to be invoked when the toast is dismissed, with the
+     * number of frames rendered while it was shown. In overlay mode these are the
+     * frames of the activity's window, see {@link OnFramesRenderedListener}.
+     *
+     * @param listener The callback that will run, or null to remove it.
+     */
+    @Override
+    public FloatingToastStyle setOnFramesRenderedListener(OnFramesRenderedListener listener) {
+        this.onFramesRenderedListener = listener;
+        return this;
+    }
+
+    /**
+     * Register callbacks to be invoked when the toast is shown and dismissed. Register
+     * them before {@link #show()}, which may show the toast right away.
+     *
+     * @param callback The callbacks that will run, or null to remove them.
+     * @see ToastHandle#setCallback(ToastHandle.Callback)
+     */
+    @Override
+    public FloatingToastStyle setToastCallback(ToastHandle.Callback callback) {
+        getHandle().setCallback(callback);
         return this;
     }
 
     /**
      * Show the view for the specified duration at the touch position.
+     * Replaces the {@link View.OnTouchListener} of the view; for many views, e.g.
+     * the items of a list, use one {@link FloatingToastTouchDispatcher} on their parent.
      * @param view  View over which the toast is to be shown
+     * @return The handle of the toast.
      */
     @Override
-    public void showAtTouchPosition(View view) {
-        WeakReference<View> view1 = new WeakReference<>(view);
-        if(view1.get() != null) {
-            view1.get().setOnTouchListener(new View.OnTouchListener() {
-                @Override
-                public boolean onTouch(View v, MotionEvent event) {
-
-                    int action = event.getAction();
-
-                    if (action == MotionEvent.ACTION_DOWN) {
-                        isTouchInsideView = true;
-
-                    } else if (action == MotionEvent.ACTION_UP) {
-                        if (isTouchInsideView) {
-
-                            int actionBarSize = (int) getActionBarSize();
-
-                            int x = (int) event.getRawX();
-                            int y = (int) event.getRawY() - actionBarSize;
-
-                            layoutParams.gravity = Gravity.TOP | Gravity.LEFT;
-                            layoutParams.x = x;
-                            layoutParams.y = y;
-
-                            dialog.getWindow().setAttributes(layoutParams);
-
-                            showDialog();
-
-                            return false;
-                        }
-                    }else if (action == MotionEvent.ACTION_MOVE) {
-                        if (isTouchInsideView) {
-                            float currentX = event.getX();
-                            float currentY = event.getY();
-                            float currentPosX = currentX + v.getLeft();
-                            float currentPosY = currentY + v.getTop();
-                            float viewLeft = v.getLeft();
-                            float viewTop = v.getTop();
-                            float viewRight = v.getRight();
-                            float viewBottom = v.getBottom();
-                            if (!(currentPosX > viewLeft && currentPosX < viewRight
-                                    && currentPosY > viewTop && currentPosY < viewBottom)) {
-                                isTouchInsideView = false;
-                            }
-
-                            return true;
-                        }
+    public ToastHandle showAtTouchPosition(View view) {
+        if(view != null) {
+            isShownAtTouchPosition = true;
+            if(window != null)
+                window.setRecyclable(false);
+            if(touchPositionListener == null)
+                touchPositionListener = new TouchPositionListener();
+            touchPositionListener.touchSlop = ViewConfiguration.get(view.getContext()).getScaledTouchSlop();
+            view.setOnTouchListener(touchPositionListener);
+            // Taps show the toast once the text is loaded.
+            if(textLoader != null)
+                textLoader.start(null);
+        }
+        return getHandle();
+    }
+
+    /**
+     * Shows the toast where a tap on the view ends. Runs at the touch sampling rate,
+     * so it allocates nothing until the toast is shown.
+     */
+    private final class TouchPositionListener implements View.OnTouchListener {
+        int touchSlop;
+
+        @Override
+        public boolean onTouch(View v, MotionEvent event) {
+
+            int action = event.getActionMasked();
+
+            if (action == MotionEvent.ACTION_DOWN) {
+                isTouchInsideView = true;
+
+            } else if (action == MotionEvent.ACTION_UP) {
+                if (isTouchInsideView && messageText != null && setTouchPosition(event.getRawX(), event.getRawY()))
+                    show();
+                return false;
+            } else if (action == MotionEvent.ACTION_MOVE) {
+                if (isTouchInsideView) {
+                    // Like a click, the tap survives moving up to the touch slop out of the view.
+                    float x = event.getX();
+                    float y = event.getY();
+                    if (x < -touchSlop || y < -touchSlop
+                            || x >= v.getWidth() + touchSlop || y >= v.getHeight() + touchSlop) {
+                        isTouchInsideView = false;
                     }
-                    return false;
+
+                    return true;
                 }
-            });
+            } else if (action == MotionEvent.ACTION_CANCEL) {
+                isTouchInsideView = false;
+            }
+            return false;
         }
     }
 
     /**
-     * Show the view for the specified duration.
+     * Shows the toast once at a point of the screen, as if it was tapped there.
+     * Used by {@link FloatingToastTouchDispatcher}.
+     */
+    void showAtRawPosition(float rawX, float rawY) {
+        if(setTouchPosition(rawX, rawY))
+            show();
+    }
+
+    /**
+     * @return False if the activity is gone.
+     */
+    private boolean setTouchPosition(float rawX, float rawY) {
+        Activity activity = this.activity.get();
+        if(activity == null)
+            return false;
+
+        // Offsets of the toast window start at the visible display frame.
+        ToastGeometry geometry = ToastGeometry.obtain(activity);
+        hasTouchPosition = true;
+        touchX = (int) rawX - geometry.getWindowLeft();
+        touchY = (int) rawY - geometry.getWindowTop();
+        return true;
+    }
+
+    /**
+     * Show the view for the specified duration. The toast goes through the
+     * {@link FloatingToastScheduler}, which may delay, replace or coalesce it
+     * depending on its policy and limits.
+     *
+     * @return The handle of the toast, to cancel it or change its text.
      */
     @Override
-    public void show() {
-        showDialog();
+    public ToastHandle show() {
+        if(textLoader != null && !textLoader.isLoaded()) {
+            // Shown by onTextLoaded(), the window is prepared while the text loads.
+            if(!textLoader.isLoading()) {
+                textLoader.start(getTextParams());
+                if(textLoader.isLoading())
+                    prepareWindow();
+            }
+            return getHandle();
+        }
+
+        // Prunes the toast from the scheduler if its activity is destroyed while it waits.
+        Activity activity = this.activity != null ? this.activity.get() : null;
+        if(activity != null)
+            ToastLifecycleRegistry.getInstance(activity);
+        FloatingToastScheduler scheduler = FloatingToastScheduler.getInstance();
+        // Shown again while it waits or is visible, the toast keeps its entry, and
+        // with it its place in the queue or its window.
+        if(scheduledToast == null || !scheduler.isScheduled(scheduledToast))
+            scheduledToast = new ScheduledToast();
+        scheduler.enqueue(scheduledToast);
+        return getHandle();
     }
 
-    private void showDialog() {
-        this.dialog.show();
-        onStartDialog();
+    private void loadText(Callable<? extends CharSequence> text, Executor executor) {
+        textLoader = new ToastTextLoader(text, executor, new ToastTextLoader.Listener() {
+            @Override
+            public void onTextLoaded(CharSequence text) {
+                messageText = copyText(text);
+                if(!isShownAtTouchPosition)
+                    show();
+            }
+
+            @Override
+            public void onTextLoadFailed(Throwable error) {
+                Log.w(TAG, "Failed to load the text of a toast, it is not shown", error);
+                releaseWindow();
+                if(handle != null)
+                    handle.onDismissed(FloatingToastMetrics.DISMISS_REASON_TEXT_LOAD_FAILED);
+            }
+        });
     }
 
-    private void dismissDialog() {
-        if(dialog != null && dialog.isShowing())
-            dialog.dismiss();
+    /**
+     * @return The layout params the text will be shown with, or null if its text is
+     *         not cached. They depend on the spec only, so they are known before the
+     *         toast has a window once any window was styled with the spec.
+     */
+    private PrecomputedTextCompat.Params getTextParams() {
+        FloatingToastSpec spec = getSpec();
+        if(!ToastTextCache.getInstance().isEnabled() || spec.textRenderer != TEXT_RENDERER_LAYERED)
+            return null;
+        return spec.getTextParams();
     }
 
-    private FloatingToast(View view, String messageText, int duration) {
-        this.view = new WeakReference<>(view);
-        if(this.view.get() != null) {
-            this.activity = new WeakReference<>(getActivity(this.view.get()));
+    private ToastHandle getHandle() {
+        if(handle == null)
+            handle = new ToastHandle(this);
+        return handle;
+    }
+
+    /**
+     * @see ToastHandle#cancel()
+     */
+    void cancel() {
+        boolean isDropped = false;
+        if(textLoader != null && textLoader.isLoading()) {
+            textLoader.cancel();
+            isDropped = true;
+        }
+        // The toast has a single entry, shown again in place, see show().
+        if(scheduledToast != null && FloatingToastScheduler.getInstance().cancel(scheduledToast))
+            isDropped = true;
+
+        if(isShowing()) {
+            dismissDialog(FloatingToastMetrics.DISMISS_REASON_CANCELED);
+        } else if(isDropped) {
+            releaseWindow();
+            if(handle != null)
+                handle.onDismissed(FloatingToastMetrics.DISMISS_REASON_CANCELED);
         }
+    }
 
-        if(this.activity.get() != null)
-            dialog = new Dialog(this.activity.get()){
-                @Override
-                public boolean onTouchEvent(@NonNull MotionEvent event) {
-                    int action = event.getAction();
-
-                    if(action == MotionEvent.ACTION_OUTSIDE) {
-                        Rect rect = new Rect();
-                        FloatingToast.this.view.get().getGlobalVisibleRect(rect);
-
-                        float rectLeft = rect.left;
-                        float rectRight = rect.right;
-                        float rawX = event.getRawX();
-
-                        float rectTop = rect.top;
-                        float rectBottom = rect.bottom;
-                        float rawY = event.getRawY();
-                        if((rawX > rectLeft && rawX < rectRight
-                                && rawY > rectTop && rawY < rectBottom)) {
-                            if(isShowing())
-                                dismiss();
-                            return false;
-                        }
-                    }
+    /**
+     * @see ToastHandle#isShowing()
+     */
+    boolean isShowing() {
+        return window != null && window.isBoundTo(this) && window.isShowing();
+    }
 
-                    return false;
-                }
+    /**
+     * @see ToastHandle#updateText(CharSequence)
+     */
+    void updateText(CharSequence text) {
+        this.messageText = copyText(text);
+        if(!isShowing())
+            return;
+
+        if(scheduledToast != null && scheduledToast.count > 1)
+            updateTextContent(scheduledToast.getBadgeText(scheduledToast.count));
+        else
+            updateTextContent(messageText);
+    }
 
-                @Override
-                public void onBackPressed() {
-                    FloatingToast.this.activity.get().onBackPressed();
-                }
-            };
+    private void showDialog(CharSequence text) {
+        ToastTrace.beginSection(ToastTrace.SHOW);
+        try {
+            showDialogTraced(text);
+        } finally {
+            ToastTrace.endSection();
+        }
+    }
 
-        initToast(messageText, duration);
+    private void showDialogTraced(CharSequence text) {
+        if(!prepareWindow())
+            return;
+
+        updateTextContent(text);
+        // Set on every show, as touch toasts move the window. Cheap before the window is shown.
+        FloatingToastSpec spec = this.window.getAppliedSpec();
+        if(hasTouchPosition)
+            this.window.setPosition(Gravity.TOP | Gravity.LEFT, touchX, touchY);
+        else if(spec.isMidGravity)
+            this.window.setPosition(spec.windowGravity, spec.xOffset,
+                    ToastGeometry.obtain(this.activity.get()).getDisplayHeight() / 4);
+        else
+            this.window.setPosition(spec.windowGravity, spec.xOffset, spec.yOffset);
+
+        this.window.show();
+        this.shownNanos = System.nanoTime();
+        this.firstFrameNanos = 0;
+        this.fadeStartNanos = 0;
+        this.dismissReason = FloatingToastMetrics.DISMISS_REASON_TIMEOUT;
+        ToastMetrics.getInstance().onShown();
+        if(!isLifetimeTraced) {
+            isLifetimeTraced = true;
+            ToastTrace.beginAsyncSection(ToastTrace.LIFETIME, traceCookie);
+        }
+        onStartDialog();
+        if(handle != null)
+            handle.onShown();
     }
 
-    private FloatingToast(Activity activity, String messageText, final int duration) {
-        this.activity = new WeakReference<>(activity);
+    /**
+     * @param reason One of the {@code FloatingToastMetrics.DISMISS_REASON_} constants.
+     */
+    private void dismissDialog(int reason) {
+        if(isShowing()) {
+            dismissReason = reason;
+            ToastTrace.beginSection(ToastTrace.DISMISS);
+            try {
+                window.dismiss();
+            } finally {
+                ToastTrace.endSection();
+            }
+        }
+    }
 
-        if(this.activity.get() != null)
-            dialog = new Dialog(this.activity.get()){
-                @Override
-                public boolean onTouchEvent(@NonNull MotionEvent event) {
-                    if(event.getAction() == MotionEvent.ACTION_OUTSIDE)
-                        if(isShowing())
-                            dismiss();
-                    return false;
-                }
+    /**
+     * Takes a window of the spec's window mode if the toast has none, and applies
+     * the spec to it unless it was the last one applied to that window. This is
+     * the only place where the style reaches the views.
+     *
+     * @return False if the toast can not be shown anymore.
+     */
+    private boolean prepareWindow() {
+        Activity activity = this.activity.get();
+        if(activity == null)
+            return false;
+
+        FloatingToastSpec spec = getSpec();
+        if(window != null && window.getWindowMode() != spec.windowMode && !window.isShowing())
+            releaseWindow();
+
+        if(window == null) {
+            window = ToastWindowPool.acquire(activity, spec.windowMode);
+            window.bind(this);
+            window.setRecyclable(!isShownAtTouchPosition);
+        }
 
-                @Override
-                public void onBackPressed() {
-                    FloatingToast.this.activity.get().onBackPressed();
-                }
-            };
+        FloatingToastSpec appliedSpec = window.getAppliedSpec();
+        if(appliedSpec != spec) {
+            if(appliedSpec != null)
+                window.getContent().reset();
+            ToastTrace.beginSection(ToastTrace.APPLY_SPEC);
+            try {
+                applySpec(window.getContent(), spec);
+                window.getContent().invalidateTextParams();
+                // For the text loads of the next toasts of this spec, see getTextParams().
+                if(spec.textRenderer == TEXT_RENDERER_LAYERED)
+                    spec.setTextParams(window.getContent().getTextParams());
+            } finally {
+                ToastTrace.endSection();
+            }
+            window.setAppliedSpec(spec);
+        }
+        return true;
+    }
 
-        initToast(messageText, duration);
+    private static void applySpec(ToastContent content, FloatingToastSpec spec) {
+        float textSizeInPx = spec.hasTextSize()
+                ? spec.getTextSizeInPx(content.root.getResources().getDisplayMetrics()) : 0;
+        if(spec.textRenderer == TEXT_RENDERER_SINGLE_PASS) {
+            FloatingToastView toastView = content.toastView;
+            if(spec.hasTextColor)
+                toastView.setTextColor(spec.textColor);
+            if(spec.hasTextSize())
+                toastView.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSizeInPx);
+            if(spec.hasTextStyle())
+                toastView.setTypeface(spec.styledTypeface, spec.textStyle);
+            else if(spec.hasTypeface)
+                toastView.setTypeface(spec.styledTypeface);
+            toastView.setShadowLayer(spec.shadowRadius, spec.shadowDx, spec.shadowDy, spec.shadowColor);
+            toastView.setBlurEnabled(spec.isBackgroundBlurEnabled);
+
+            content.messageTextView.setVisibility(View.GONE);
+            content.blurViewRight.setVisibility(View.GONE);
+            content.blurViewLeft.setVisibility(View.GONE);
+            toastView.setVisibility(View.VISIBLE);
+        } else {
+            applyTextStyle(content.messageTextView, spec, textSizeInPx);
+            applyTextStyle(content.blurViewRight, spec, textSizeInPx);
+            applyTextStyle(content.blurViewLeft, spec, textSizeInPx);
+            content.messageTextView.setShadowLayer(spec.shadowRadius, spec.shadowDx, spec.shadowDy, spec.shadowColor);
+
+            int blurVisibility = spec.isBackgroundBlurEnabled ? View.VISIBLE : View.GONE;
+            content.blurViewRight.setVisibility(blurVisibility);
+            content.blurViewLeft.setVisibility(blurVisibility);
+        }
+    }
 
+    private static void applyTextStyle(TextView textView, FloatingToastSpec spec, float textSizeInPx) {
+        if(spec.hasTextColor)
+            textView.setTextColor(spec.textColor);
+        if(spec.hasTextSize())
+            textView.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSizeInPx);
+        if(spec.hasTextStyle())
+            textView.setTypeface(spec.styledTypeface, spec.textStyle);
+        else if(spec.hasTypeface)
+            textView.setTypeface(spec.styledTypeface);
     }
 
-    private static Activity getActivity(View view) {
-        Context context = view.getContext();
-        while (context instanceof ContextWrapper) {
-            if (context instanceof Activity) {
-                return (Activity)context;
-            }
-            context = ((ContextWrapper)context).getBaseContext();
+    /**
+     * Called by the bound window for touches outside of it. Toasts created from
+     * a view are dismissed when the view is touched again, toasts created from
+     * an activity on any outside touch.
+     */
+    void onOutsideTouch(MotionEvent event) {
+        if(this.view == null) {
+            dismissDialog(FloatingToastMetrics.DISMISS_REASON_OUTSIDE_TOUCH);
+            return;
+        }
+
+        View anchor = this.view.get();
+        if(anchor == null)
+            return;
+
+        if(anchorRect == null)
+            anchorRect = new Rect();
+        anchor.getGlobalVisibleRect(anchorRect);
+
+        float rawX = event.getRawX();
+        float rawY = event.getRawY();
+        if((rawX > anchorRect.left && rawX < anchorRect.right
+                && rawY > anchorRect.top && rawY < anchorRect.bottom)) {
+            dismissDialog(FloatingToastMetrics.DISMISS_REASON_OUTSIDE_TOUCH);
         }
-        return null;
     }
 
-    private void initToast(String messageText, final int duration) {
-        this.duration = duration;
+    /**
+     * Called by the bound window once it has been dismissed, right before it
+     * goes back to the {@link ToastWindowPool}.
+     */
+    void onWindowDismissed(ToastWindow window, boolean isReleased) {
+        if(timeline != null)
+            ToastAnimationDriver.getInstance().cancel(timeline);
+
+        if(lifecycleEntry != null) {
+            ToastLifecycleRegistry.unregister(lifecycleEntry);
+            lifecycleEntry = null;
+        }
+
+        if(isCountingFrames) {
+            isCountingFrames = false;
+            if(frameCounterObserver.isAlive())
+                frameCounterObserver.removeOnDrawListener(frameCounter);
+            frameCounterObserver = null;
+            if(onFramesRenderedListener != null)
+                onFramesRenderedListener.onFramesRendered(this, frameCounter.frameCount);
+        }
+
+        ToastMetrics.getInstance().onDismissed(this, madeNanos, shownNanos, firstFrameNanos,
+                fadeStartNanos, dismissReason);
 
-        layoutParams = dialog.getWindow().getAttributes();
-        dialog.requestWindowFeature(Window.FEATURE_NO_TITLE);
-        dialog.setContentView(R.layout.layout_toast);
-        dialog.getWindow().setLayout(LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
-        dialog.getWindow().addFlags(WindowManager.LayoutParams.FLAG_WATCH_OUTSIDE_TOUCH);
-        dialog.getWindow().addFlags(WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE);
-        dialog.getWindow().setBackgroundDrawableResource(android.R.color.transparent);
-        dialog.getWindow().setDimAmount(0.0F);
-        dialog.getWindow().setGravity(GRAVITY_CENTER);
-        dialog.getWindow().setWindowAnimations(R.style.ToastAnimation);
+        setTracePhase(null);
+        if(isLifetimeTraced) {
+            isLifetimeTraced = false;
+            ToastTrace.endAsyncSection(ToastTrace.LIFETIME, traceCookie);
+        }
 
-        messageTextView = dialog.findViewById(R.id.messageTextView);
-        blurViewRight = dialog.findViewById(R.id.blurViewRight);
-        blurViewLeft = dialog.findViewById(R.id.blurViewLeft);
+        if(handle != null)
+            handle.onDismissed(dismissReason);
 
-        updateTextContent(messageText);
+        if(isReleased && this.window == window)
+            this.window = null;
 
+        // Also for windows kept for the next tap, which are done with this show all the same.
+        if(scheduledToast != null) {
+            ScheduledToast entry = scheduledToast;
+            scheduledToast = null;
+            FloatingToastScheduler.getInstance().onDismissed(entry);
+        }
     }
 
-    private void onStartDialog() {
-        final View decorView = this.dialog.getWindow()
-                .getDecorView();
-
-        decorView.animate()
-                .translationY(-(this.translationDistance))
-                .setStartDelay(0)
-                .setDuration(this.duration)
-                .start();
-
-        decorView.animate()
-                .alpha(0.0f)
-                .setStartDelay(this.duration + this.standByDuration)
-                .setDuration(this.fadeOutDuration)
-                .start();
-
-        final Application.ActivityLifecycleCallbacks lifecycleCallbacks = new Application.ActivityLifecycleCallbacks() {
-            @Override
-            public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    /**
+     * Called by the {@link ToastLifecycleRegistry} when the activity of this
+     * shown toast is paused or destroyed.
+     */
+    void onActivityPaused() {
+        lifecycleEntry = null;
+        dismissDialog(FloatingToastMetrics.DISMISS_REASON_ACTIVITY_PAUSED);
+        // The window may already be gone with its activity, and never report the dismissal.
+        if(timeline != null)
+            ToastAnimationDriver.getInstance().cancel(timeline);
+    }
 
-            }
+    /**
+     * Hands the window back to the pool without it ever being shown.
+     */
+    private void releaseWindow() {
+        if(window != null && window.isBoundTo(this)) {
+            ToastWindow released = window;
+            window = null;
+            released.bind(null);
+            ToastWindowPool.release(released);
+        }
+    }
 
-            @Override
-            public void onActivityStarted(Activity activity) {
+    private final class ScheduledToast extends FloatingToastScheduler.Entry {
 
-            }
+        ScheduledToast() {
+            // Coalesced by their plain text.
+            super(String.valueOf(messageText));
+        }
 
-            @Override
-            public void onActivityResumed(Activity activity) {
+        @Override
+        void show(int count) {
+            showDialog(count > 1 ? getBadgeText(count) : messageText);
+        }
 
-            }
+        @Override
+        void updateCount(int count) {
+            if(window != null && window.isShowing())
+                updateTextContent(getBadgeText(count));
+        }
 
-            @Override
-            public void onActivityPaused(Activity activity) {
-                dismissDialog();
-            }
+        @Override
+        void dismiss() {
+            dismissDialog(FloatingToastMetrics.DISMISS_REASON_REPLACED);
+        }
 
-            @Override
-            public void onActivityStopped(Activity activity) {
+        @Override
+        void discard() {
+            // A replaced entry of the toast must not take the window of its current one.
+            if(scheduledToast != this)
+                return;
 
-            }
+            scheduledToast = null;
+            if(!isShowing())
+                releaseWindow();
+        }
 
-            @Override
-            public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        @Override
+        boolean isAlive() {
+            Activity activity = FloatingToast.this.activity.get();
+            if(activity == null || activity.isFinishing())
+                return false;
+            return Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1 || !activity.isDestroyed();
+        }
 
-            }
+        private CharSequence getBadgeText(int count) {
+            return TextUtils.concat(messageText, " \u00d7" + count);
+        }
+    }
 
-            @Override
-            public void onActivityDestroyed(Activity activity) {
-                activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+    private FloatingToast(View view, CharSequence messageText, int duration, FloatingToastSpec spec) {
+        this.view = new WeakReference<>(view);
+        if(this.view.get() != null) {
+            this.activity = new WeakReference<>(getActivity(this.view.get()));
+        }
+
+        initToast(messageText, duration, spec);
+    }
+
+    private FloatingToast(Activity activity, CharSequence messageText, final int duration, FloatingToastSpec spec) {
+        this.activity = new WeakReference<>(activity);
+
+        initToast(messageText, duration, spec);
+
+    }
+
+    private static Activity getActivity(View view) {
+        Context context = view.getContext();
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return (Activity)context;
             }
-        };
+            context = ((ContextWrapper)context).getBaseContext();
+        }
+        return null;
+    }
 
-        this.activity.get().getApplication().registerActivityLifecycleCallbacks(lifecycleCallbacks);
+    private void initToast(CharSequence messageText, final int duration, FloatingToastSpec spec) {
+        ToastTrace.beginSection(ToastTrace.MAKE);
+        try {
+            this.madeNanos = System.nanoTime();
+            this.duration = duration;
+            this.messageText = copyText(messageText);
+            this.spec = spec != null ? spec : getDefaultSpec(defaultWindowMode);
+        } finally {
+            ToastTrace.endSection();
+        }
+    }
 
-        new Handler().postDelayed(
-                new Runnable() {
-                    public void run() {
-                        if(!activity.get().isFinishing()) {
-                            dismissDialog();
+    /**
+     * Copies the text once, so that the caller may change it afterwards. Spanned text
+     * becomes a {@link SpannedString}, which the text views of every layer keep as is
+     * instead of copying it again.
+     */
+    static CharSequence copyText(CharSequence text) {
+        if(text == null || text instanceof String || text instanceof SpannedString)
+            return text;
+        if(text instanceof Spanned)
+            return new SpannedString(text);
+        return text.toString();
+    }
 
-                            if (activity.get() != null)
-                                activity.get().getApplication().unregisterActivityLifecycleCallbacks(lifecycleCallbacks);
-                        }
-                    }
-                },
-                this.duration + this.standByDuration + this.fadeOutDuration);
+    /**
+     * Spanned text is only the same if it is the very same object, as its spans may differ.
+     */
+    private static boolean isSameText(CharSequence shown, CharSequence text) {
+        if(shown instanceof Spanned || text instanceof Spanned)
+            return shown == text;
+        return TextUtils.equals(shown, text);
+    }
+
+    /**
+     * The spec of unstyled toasts, shared so that their pooled windows are never
+     * styled again.
+     */
+    private static FloatingToastSpec getDefaultSpec(int windowMode) {
+        if(defaultSpecs[windowMode] == null)
+            defaultSpecs[windowMode] = new FloatingToastSpec.Builder(windowMode).build();
+        return defaultSpecs[windowMode];
+    }
+
+    static int getDefaultWindowMode() {
+        return defaultWindowMode;
     }
 
-    private void updateTextContent(String text) {
-        messageTextView.setText(text);
-        blurViewRight.setText(text);
-        blurViewLeft.setText(text);
+    /**
+     * The builder is only created by the first setter, so that toasts made from a
+     * spec and never styled show that very spec.
+     */
+    private FloatingToastSpec.Builder style() {
+        if(style == null)
+            style = new FloatingToastSpec.Builder(spec);
+        return style;
     }
 
-    private void updateTextColor(int color) {
-        this.messageTextView.setTextColor(color);
-        this.blurViewRight.setTextColor(color);
-        this.blurViewLeft.setTextColor(color);
+    private FloatingToastSpec getSpec() {
+        return style != null ? style.build() : spec;
     }
 
-    private void updateTextTypeface(Typeface typeface) {
-        this.messageTextView.setTypeface(typeface);
-        this.blurViewRight.setTypeface(typeface);
-        this.blurViewLeft.setTypeface(typeface);
+    private void onStartDialog() {
+        if(this.window == null)
+            return;
+
+        ToastTrace.beginSection(ToastTrace.START_ANIMATION);
+        try {
+            startAnimation();
+        } finally {
+            ToastTrace.endSection();
+        }
     }
 
-    private void updateTextStyle(int style) {
-        this.messageTextView.setTypeface(messageTextView.getTypeface(), style);
-        this.blurViewRight.setTypeface(messageTextView.getTypeface(), style);
-        this.blurViewLeft.setTypeface(messageTextView.getTypeface(), style);
+    private void startAnimation() {
+        final View decorView = this.window.getAnimatedView();
+
+        FloatingToastSpec spec = this.window.getAppliedSpec();
+        if(spec.animationEngine == ANIMATION_ENGINE_HARDWARE_LAYER)
+            decorView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+
+        startCountingFrames(decorView);
+
+        if(this.timeline == null)
+            this.timeline = new ToastTimeline();
+        this.timeline.view = decorView;
+        this.timeline.set(this.duration, spec.standByDuration, spec.fadeOutDuration, spec.floatDistance);
+        this.timeline.floatInterpolator = spec.floatInterpolator;
+        ToastAnimationDriver.getInstance().start(this.timeline);
+
+        if(this.lifecycleEntry == null) {
+            Activity activity = this.activity.get();
+            this.lifecycleEntry = ToastLifecycleRegistry.getInstance(activity).register(activity, this);
+        }
+    }
+
+    /**
+     * Floats the window up, fades it out and dismisses it on the frame the fade ends.
+     */
+    private final class ToastTimeline extends ToastAnimationDriver.Timeline {
+        View view;
+
+        @Override
+        void onFrame(float translationY, float alpha) {
+            view.setTranslationY(translationY);
+            view.setAlpha(alpha);
+
+            if(firstFrameNanos == 0)
+                firstFrameNanos = System.nanoTime();
+            if(fadeStartNanos == 0 && alpha < 1.0f)
+                fadeStartNanos = System.nanoTime();
+
+            if(alpha < 1.0f)
+                setTracePhase(ToastTrace.PHASE_FADE);
+            else if(translationY == -distance)
+                setTracePhase(ToastTrace.PHASE_STAND_BY);
+            else
+                setTracePhase(ToastTrace.PHASE_FLOAT);
+        }
+
+        @Override
+        void onEnd() {
+            if(activity.get() != null && !activity.get().isFinishing())
+                dismissDialog(FloatingToastMetrics.DISMISS_REASON_TIMEOUT);
+        }
     }
 
-    private void updateTextSize(int unit, float size) {
-        this.messageTextView.setTextSize(unit, size);
-        this.blurViewRight.setTextSize(unit, size);
-        this.blurViewLeft.setTextSize(unit, size);
+    /**
+     * Ends the async section of the current animation phase and begins the one of
+     * the given phase, if it changed.
+     *
+     * @param phase One of the {@code ToastTrace.PHASE_} names, or null once dismissed.
+     */
+    private void setTracePhase(String phase) {
+        if(phase == tracePhase)
+            return;
+
+        if(tracePhase != null)
+            ToastTrace.endAsyncSection(tracePhase, traceCookie);
+        tracePhase = phase;
+        if(phase != null)
+            ToastTrace.beginAsyncSection(phase, traceCookie);
     }
 
-    private int getDisplayHeight() {
-        DisplayMetrics displayMetrics = new DisplayMetrics();
-        this.activity.get().getWindowManager().getDefaultDisplay().getMetrics(displayMetrics);
-        return displayMetrics.heightPixels;
+    private void startCountingFrames(View decorView) {
+        if(onFramesRenderedListener == null || isCountingFrames
+                || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN)
+            return;
+
+        if(frameCounter == null)
+            frameCounter = new FrameCounter();
+        frameCounter.frameCount = 0;
+        isCountingFrames = true;
+        // An overlay shares the observer of the activity's window, so the listener
+        // is removed again on dismissal, and counts every frame of that window.
+        frameCounterObserver = decorView.getViewTreeObserver();
+        frameCounterObserver.addOnDrawListener(frameCounter);
     }
 
-    private float getActionBarSize() {
-        final TypedArray styledAttributes = this.activity.get().getTheme().obtainStyledAttributes(
-                new int[] { android.R.attr.actionBarSize});
-        float actionBarSize = styledAttributes.getDimension(0, 0);
-        styledAttributes.recycle();
+    private static final class FrameCounter implements ViewTreeObserver.OnDrawListener {
+        int frameCount;
 
-        return actionBarSize;
+        @Override
+        public void onDraw() {
+            frameCount++;
+        }
+    }
+
+    private void updateTextContent(CharSequence text) {
+        ToastContent content = this.window.getContent();
+        if(this.window.getAppliedSpec().textRenderer == TEXT_RENDERER_SINGLE_PASS) {
+            if(!isSameText(content.toastView.getText(), text))
+                content.toastView.setText(text);
+            return;
+        }
+        if(isSameText(content.layeredText, text))
+            return;
+
+        content.layeredText = text;
+        ToastTextCache textCache = ToastTextCache.getInstance();
+        // Spanned text is measured with its spans, and not cached.
+        if(text instanceof String && textCache.isEnabled()) {
+            String plainText = (String) text;
+            PrecomputedTextCompat.Params params = content.getTextParams();
+            PrecomputedTextCompat precomputed = textCache.get(plainText, params);
+            if(precomputed != null) {
+                TextViewCompat.setPrecomputedText(content.messageTextView, precomputed);
+                TextViewCompat.setPrecomputedText(content.blurViewRight, precomputed);
+                TextViewCompat.setPrecomputedText(content.blurViewLeft, precomputed);
+                return;
+            }
+            textCache.precompute(plainText, params);
+        }
+        content.messageTextView.setText(text);
+        content.blurViewRight.setText(text);
+        content.blurViewLeft.setText(text);
     }
 }
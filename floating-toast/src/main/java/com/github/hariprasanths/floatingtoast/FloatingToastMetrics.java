@@ -0,0 +1,44 @@
+package com.github.hariprasanths.floatingtoast;
+
+/**
+ * Interface definition for a callback to be invoked every time a toast window is
+ * dismissed, with the timestamps of the phases the toast went through. Timestamps
+ * are in the time base of {@link System#nanoTime()}, 0 for a phase that was not
+ * reached. Invoked on the main thread.
+ * <p>
+ * Aggregate counters are available from {@link FloatingToast#getToastStats()}.
+ *
+ * @see FloatingToast#setMetricsListener(FloatingToastMetrics)
+ */
+public interface FloatingToastMetrics {
+
+    /**
+     * Why a toast was dismissed.
+     * <p>
+     * {@link #DISMISS_REASON_TIMEOUT} - its animation ended.<br/>
+     * {@link #DISMISS_REASON_ACTIVITY_PAUSED} - its activity was paused or destroyed first.<br/>
+     * {@link #DISMISS_REASON_OUTSIDE_TOUCH} - the screen or its view was touched.<br/>
+     * {@link #DISMISS_REASON_REPLACED} - the {@link FloatingToastScheduler} made room for another toast.<br/>
+     * {@link #DISMISS_REASON_CANCELED} - {@link ToastHandle#cancel()} was called.<br/>
+     * {@link #DISMISS_REASON_TEXT_LOAD_FAILED} - the text source given to {@code makeToast(...)}
+     * threw, the toast was never shown. Only reported to {@link ToastHandle.Callback}.
+     */
+    int DISMISS_REASON_TIMEOUT = 0;
+    int DISMISS_REASON_ACTIVITY_PAUSED = 1;
+    int DISMISS_REASON_OUTSIDE_TOUCH = 2;
+    int DISMISS_REASON_REPLACED = 3;
+    int DISMISS_REASON_CANCELED = 4;
+    int DISMISS_REASON_TEXT_LOAD_FAILED = 5;
+
+    /**
+     * @param toast            The dismissed toast.
+     * @param madeNanos        When the toast was made by {@code makeToast(...)}.
+     * @param shownNanos       When its window was shown.
+     * @param firstFrameNanos  When its first animation frame was applied.
+     * @param fadeStartNanos   When its first faded frame was applied.
+     * @param dismissedNanos   When its window was dismissed.
+     * @param dismissReason    One of the {@code DISMISS_REASON_} constants.
+     */
+    void onToastDismissed(FloatingToast toast, long madeNanos, long shownNanos, long firstFrameNanos,
+                          long fadeStartNanos, long dismissedNanos, int dismissReason);
+}
@@ -0,0 +1,367 @@
+package com.github.hariprasanths.floatingtoast;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Coordinates {@link FloatingToast#show()} calls so that bursts of toasts keep the
+ * number of toast windows bounded.
+ * <p>
+ * Every shown toast goes through the scheduler. With the default configuration
+ * ({@link #POLICY_QUEUE}, no limits) toasts are shown right away, exactly as if there
+ * was no scheduler. Limiting the number of concurrent windows or the number of toasts
+ * per second makes further toasts wait, be replaced or be coalesced depending on the
+ * policy.
+ * <p>
+ * Must only be used from the main thread.
+ */
+public final class FloatingToastScheduler {
+
+    /**
+     * What happens to a toast that can not be shown right away. This could be
+     * user-definable. Default is {@link #POLICY_QUEUE}
+     * <p>
+     * {@link #POLICY_QUEUE} - toasts wait for their turn in the order they were shown.<br/>
+     * {@link #POLICY_REPLACE_LATEST} - only the latest waiting toast is kept, and when all
+     * windows are in use the most recently shown toast is dismissed to make room for it.<br/>
+     * {@link #POLICY_COALESCE} - a toast with the same text as a visible or waiting toast
+     * is merged into it, which then shows a counter badge (e.g. "Added to cart &times;3").
+     * Other toasts are queued.
+     * @see #setPolicy(int)
+     */
+    public static final int POLICY_QUEUE = 0;
+    public static final int POLICY_REPLACE_LATEST = 1;
+    public static final int POLICY_COALESCE = 2;
+
+    /**
+     * No limit on the number of concurrent toasts or toasts per second.
+     */
+    public static final int UNLIMITED = 0;
+
+    private static final long RATE_WINDOW_MILLIS = 1000;
+
+    private static FloatingToastScheduler instance;
+
+    private final Clock clock;
+    private final Timer timer;
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final ArrayList<Entry> active = new ArrayList<>();
+    private int policy = POLICY_QUEUE;
+    private int maxConcurrentToasts = UNLIMITED;
+    private int maxToastsPerSecond = UNLIMITED;
+    private long[] showTimes = new long[0];
+    private int showTimesHead;
+    private int showTimesCount;
+    private boolean isDrainScheduled = false;
+
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            isDrainScheduled = false;
+            drain();
+        }
+    };
+
+    FloatingToastScheduler(Clock clock, Timer timer) {
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    /**
+     * @return The scheduler used by every {@link FloatingToast}.
+     */
+    public static FloatingToastScheduler getInstance() {
+        if(instance == null)
+            instance = new FloatingToastScheduler(MainThreadTimer.CLOCK, new MainThreadTimer());
+        return instance;
+    }
+
+    /**
+     * Set what happens to toasts that can not be shown right away.
+     *
+     * @param policy Default is {@link #POLICY_QUEUE}
+     *               Available options - {@link #POLICY_QUEUE},
+     *               {@link #POLICY_REPLACE_LATEST}, {@link #POLICY_COALESCE}
+     */
+    public FloatingToastScheduler setPolicy(int policy) {
+        if(policy == POLICY_QUEUE || policy == POLICY_REPLACE_LATEST || policy == POLICY_COALESCE)
+            this.policy = policy;
+        return this;
+    }
+
+    public int getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Set the maximum number of toast windows shown at the same time.
+     *
+     * @param maxConcurrentToasts Default is {@link #UNLIMITED}
+     */
+    public FloatingToastScheduler setMaxConcurrentToasts(int maxConcurrentToasts) {
+        this.maxConcurrentToasts = Math.max(UNLIMITED, maxConcurrentToasts);
+        drain();
+        return this;
+    }
+
+    /**
+     * Set the maximum number of toasts shown within any one second.
+     *
+     * @param maxToastsPerSecond Default is {@link #UNLIMITED}
+     */
+    public FloatingToastScheduler setMaxToastsPerSecond(int maxToastsPerSecond) {
+        this.maxToastsPerSecond = Math.max(UNLIMITED, maxToastsPerSecond);
+        this.showTimes = new long[this.maxToastsPerSecond];
+        this.showTimesHead = 0;
+        this.showTimesCount = 0;
+        drain();
+        return this;
+    }
+
+    /**
+     * Drop all toasts that are waiting to be shown. Visible toasts are not affected.
+     */
+    public void clearPending() {
+        while (!pending.isEmpty())
+            pending.poll().discard();
+    }
+
+    /**
+     * @return Number of toasts waiting to be shown.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return Number of toasts currently shown.
+     */
+    public int getActiveCount() {
+        pruneInactive();
+        return active.size();
+    }
+
+    void enqueue(Entry entry) {
+        if(active.contains(entry)) {
+            reshow(entry);
+            return;
+        }
+        if(pending.contains(entry)) {
+            // Keeps its place in the queue.
+            if(policy == POLICY_COALESCE)
+                entry.count++;
+            return;
+        }
+
+        if(policy == POLICY_COALESCE && coalesce(entry))
+            return;
+
+        if(policy == POLICY_REPLACE_LATEST) {
+            clearPending();
+            pruneInactive();
+            if(isAtCapacity() && !active.isEmpty())
+                active.remove(active.size() - 1).dismiss();
+        }
+
+        pending.offer(entry);
+        drain();
+    }
+
+    /**
+     * Drops the toasts that are not alive anymore, so that none of them outlives its
+     * activity: waiting ones are discarded, shown ones forgotten.
+     */
+    void prune() {
+        Iterator<Entry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if(!entry.isAlive()) {
+                iterator.remove();
+                entry.discard();
+            }
+        }
+        pruneInactive();
+        if(pending.isEmpty() && isDrainScheduled) {
+            isDrainScheduled = false;
+            timer.cancel(drainTask);
+        }
+    }
+
+    /**
+     * Discards the toast if it is waiting to be shown.
+     *
+     * @return False if it is not waiting, e.g. it is shown already.
+     */
+    boolean cancel(Entry entry) {
+        if(!pending.remove(entry))
+            return false;
+
+        entry.discard();
+        if(pending.isEmpty() && isDrainScheduled) {
+            isDrainScheduled = false;
+            timer.cancel(drainTask);
+        }
+        return true;
+    }
+
+    /**
+     * @return True while the toast is waiting or shown.
+     */
+    boolean isScheduled(Entry entry) {
+        return active.contains(entry) || pending.contains(entry);
+    }
+
+    /**
+     * Called once a shown toast has been dismissed, for whatever reason.
+     */
+    void onDismissed(Entry entry) {
+        if(active.remove(entry))
+            drain();
+    }
+
+    /**
+     * A visible toast shown again already holds its window, so it is shown again in
+     * place, or its counter badge goes up under {@link #POLICY_COALESCE}. Past the rate
+     * limit it simply keeps showing.
+     */
+    private void reshow(Entry entry) {
+        if(policy == POLICY_COALESCE) {
+            entry.count++;
+            entry.updateCount(entry.count);
+            return;
+        }
+
+        long now = clock.uptimeMillis();
+        if(getNextShowTime(now) > now)
+            return;
+        recordShowTime(now);
+        entry.show(entry.count);
+    }
+
+    private boolean coalesce(Entry entry) {
+        for (Entry activeEntry : active) {
+            if(activeEntry.key.equals(entry.key) && activeEntry.isAlive()) {
+                activeEntry.count++;
+                activeEntry.updateCount(activeEntry.count);
+                entry.discard();
+                return true;
+            }
+        }
+        for (Entry pendingEntry : pending) {
+            if(pendingEntry.key.equals(entry.key)) {
+                pendingEntry.count++;
+                entry.discard();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        pruneInactive();
+        while (!pending.isEmpty() && !isAtCapacity()) {
+            long now = clock.uptimeMillis();
+            long nextShowTime = getNextShowTime(now);
+            if(nextShowTime > now) {
+                scheduleDrain(nextShowTime);
+                return;
+            }
+
+            Entry entry = pending.poll();
+            if(!entry.isAlive()) {
+                entry.discard();
+                continue;
+            }
+            recordShowTime(now);
+            active.add(entry);
+            entry.show(entry.count);
+        }
+    }
+
+    private void pruneInactive() {
+        Iterator<Entry> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            if(!iterator.next().isAlive())
+                iterator.remove();
+        }
+    }
+
+    private boolean isAtCapacity() {
+        return maxConcurrentToasts != UNLIMITED && active.size() >= maxConcurrentToasts;
+    }
+
+    private long getNextShowTime(long now) {
+        if(maxToastsPerSecond == UNLIMITED || showTimesCount < maxToastsPerSecond)
+            return now;
+        return Math.max(now, showTimes[showTimesHead] + RATE_WINDOW_MILLIS);
+    }
+
+    private void recordShowTime(long now) {
+        if(maxToastsPerSecond == UNLIMITED)
+            return;
+        if(showTimesCount < maxToastsPerSecond) {
+            showTimes[(showTimesHead + showTimesCount) % maxToastsPerSecond] = now;
+            showTimesCount++;
+        } else {
+            showTimes[showTimesHead] = now;
+            showTimesHead = (showTimesHead + 1) % maxToastsPerSecond;
+        }
+    }
+
+    private void scheduleDrain(long uptimeMillis) {
+        if(isDrainScheduled)
+            timer.cancel(drainTask);
+        isDrainScheduled = true;
+        timer.schedule(drainTask, uptimeMillis);
+    }
+
+    /**
+     * A toast as seen by the scheduler.
+     */
+    abstract static class Entry {
+        final String key;
+        int count = 1;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Show the toast, with a counter badge if {@code count} is greater than 1.
+         */
+        abstract void show(int count);
+
+        /**
+         * Update the counter badge of a visible toast.
+         */
+        abstract void updateCount(int count);
+
+        /**
+         * Dismiss a visible toast.
+         */
+        abstract void dismiss();
+
+        /**
+         * Release a toast that will never be shown. Only called for entries that are
+         * not shown, i.e. waiting ones or ones that were never enqueued.
+         */
+        abstract void discard();
+
+        /**
+         * @return False once the toast is gone, even if {@link #onDismissed(Entry)}
+         * was never called (e.g. its activity was destroyed).
+         */
+        abstract boolean isAlive();
+    }
+
+    interface Clock {
+        long uptimeMillis();
+    }
+
+    interface Timer {
+        void schedule(Runnable task, long uptimeMillis);
+
+        void cancel(Runnable task);
+    }
+}
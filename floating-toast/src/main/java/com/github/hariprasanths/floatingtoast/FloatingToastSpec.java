@@ -0,0 +1,419 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.animation.TimeInterpolator;
+import android.graphics.Typeface;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.Gravity;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+/**
+ * Immutable style of a toast. Build it once and pass it to
+ * {@link FloatingToast#makeToast(android.view.View, CharSequence, int, FloatingToastSpec)} to show the
+ * same style again and again:
+ *
+ * <pre>
+ * static final FloatingToastSpec ERROR = new FloatingToastSpec.Builder()
+ *         .setGravity(FloatingToast.GRAVITY_MID_TOP)
+ *         .setTextColor(Color.RED)
+ *         .setTextStyle(FloatingToast.STYLE_BOLD)
+ *         .build();
+ *
+ * FloatingToast.makeToast(button, text, FloatingToast.LENGTH_SHORT, ERROR).show();
+ * </pre>
+ *
+ * The values derived from the style (the typeface with its style, the resolved
+ * gravity and the text size in pixels) are computed once per spec. A pooled toast
+ * window remembers the spec it was last styled with, so showing a toast with the
+ * same spec does not touch the views at all.
+ * <p>
+ * The {@link FloatingToastStyle} setters of a toast record their values in a
+ * {@link Builder} too; the resulting spec is applied when the toast is shown.
+ */
+public final class FloatingToastSpec {
+
+    static final int UNSET = Integer.MIN_VALUE;
+
+    final int gravity;
+    final int xOffset;
+    final int yOffset;
+    final int fadeOutDuration;
+    final int textColor;
+    final boolean hasTextColor;
+    final Typeface typeface;
+    final boolean hasTypeface;
+    final int textStyle;
+    final int textSizeUnit;
+    final float textSize;
+    final float floatDistance;
+    final TimeInterpolator floatInterpolator;
+    final int standByDuration;
+    final float shadowRadius;
+    final float shadowDx;
+    final float shadowDy;
+    final int shadowColor;
+    final boolean isBackgroundBlurEnabled;
+    final int textRenderer;
+    final int animationEngine;
+    final int windowMode;
+
+    /**
+     * The typeface with {@link #textStyle} applied. Passing it to
+     * {@link android.widget.TextView#setTypeface(Typeface, int)} with the same style
+     * does not create a new typeface.
+     */
+    final Typeface styledTypeface;
+
+    /**
+     * {@link Gravity} of the window, with the mid gravities resolved.
+     */
+    final int windowGravity;
+    final boolean isMidGravity;
+
+    private float textSizeInPx;
+    private float textSizeDensity;
+    private float textSizeScaledDensity;
+    private float textSizeXdpi;
+    private PrecomputedTextCompat.Params textParams;
+
+    private FloatingToastSpec(Builder builder) {
+        this.gravity = builder.gravity;
+        this.xOffset = builder.xOffset;
+        this.yOffset = builder.yOffset;
+        this.fadeOutDuration = builder.fadeOutDuration;
+        this.textColor = builder.textColor;
+        this.hasTextColor = builder.hasTextColor;
+        this.typeface = builder.typeface;
+        this.hasTypeface = builder.hasTypeface;
+        this.textStyle = builder.textStyle;
+        this.textSizeUnit = builder.textSizeUnit;
+        this.textSize = builder.textSize;
+        this.floatDistance = builder.floatDistance;
+        this.floatInterpolator = builder.floatInterpolator;
+        this.standByDuration = builder.standByDuration;
+        this.shadowRadius = builder.shadowRadius;
+        this.shadowDx = builder.shadowDx;
+        this.shadowDy = builder.shadowDy;
+        this.shadowColor = builder.shadowColor;
+        this.isBackgroundBlurEnabled = builder.isBackgroundBlurEnabled;
+        this.textRenderer = builder.textRenderer;
+        this.animationEngine = builder.animationEngine;
+        this.windowMode = builder.windowMode;
+
+        if(hasTextStyle())
+            styledTypeface = typeface == null ? Typeface.defaultFromStyle(textStyle) : Typeface.create(typeface, textStyle);
+        else
+            styledTypeface = typeface;
+
+        switch (gravity) {
+            case FloatingToast.GRAVITY_MID_TOP:
+                windowGravity = Gravity.TOP | Gravity.CENTER;
+                isMidGravity = true;
+                break;
+
+            case FloatingToast.GRAVITY_MID_BOTTOM:
+                windowGravity = Gravity.BOTTOM | Gravity.CENTER;
+                isMidGravity = true;
+                break;
+
+            default:
+                windowGravity = gravity;
+                isMidGravity = false;
+                break;
+        }
+    }
+
+    boolean hasTextSize() {
+        return textSizeUnit != UNSET;
+    }
+
+    boolean hasTextStyle() {
+        return textStyle != UNSET;
+    }
+
+    /**
+     * @return The text size in pixels, computed again only when the metrics change.
+     */
+    float getTextSizeInPx(DisplayMetrics metrics) {
+        if(metrics.density != textSizeDensity || metrics.scaledDensity != textSizeScaledDensity
+                || metrics.xdpi != textSizeXdpi) {
+            textSizeInPx = TypedValue.applyDimension(textSizeUnit, textSize, metrics);
+            textSizeDensity = metrics.density;
+            textSizeScaledDensity = metrics.scaledDensity;
+            textSizeXdpi = metrics.xdpi;
+        }
+        return textSizeInPx;
+    }
+
+    /**
+     * @return The text layout params of the layered renderer, as last read from a
+     *         window styled with this spec, or null if none was styled yet.
+     */
+    PrecomputedTextCompat.Params getTextParams() {
+        return textParams;
+    }
+
+    void setTextParams(PrecomputedTextCompat.Params textParams) {
+        this.textParams = textParams;
+    }
+
+    /**
+     * Builds a {@link FloatingToastSpec}. The setters behave like the ones of
+     * {@link FloatingToastStyle}. {@link #build()} returns the same spec until the
+     * next change, so that an unchanged style is recognized by identity.
+     */
+    public static final class Builder {
+        private int gravity = FloatingToast.GRAVITY_CENTER;
+        private int xOffset;
+        private int yOffset;
+        private int fadeOutDuration = FloatingToast.FADE_DURATION_MEDIUM;
+        private int textColor;
+        private boolean hasTextColor = false;
+        private Typeface typeface;
+        private boolean hasTypeface = false;
+        private int textStyle = UNSET;
+        private int textSizeUnit = UNSET;
+        private float textSize;
+        private float floatDistance = FloatingToast.DISTANCE_MEDIUM;
+        private TimeInterpolator floatInterpolator;
+        private int standByDuration = FloatingToast.STAND_BY_DURATION_DEFAULT;
+        private float shadowRadius;
+        private float shadowDx;
+        private float shadowDy;
+        private int shadowColor;
+        private boolean isBackgroundBlurEnabled = true;
+        private int textRenderer = FloatingToast.TEXT_RENDERER_LAYERED;
+        private int animationEngine = FloatingToast.ANIMATION_ENGINE_DEFAULT;
+        private int windowMode;
+        private FloatingToastSpec spec;
+
+        /**
+         * Starts from the default style, in the window mode set by
+         * {@link FloatingToast#setDefaultWindowMode(int)}.
+         */
+        public Builder() {
+            this(FloatingToast.getDefaultWindowMode());
+        }
+
+        /**
+         * Starts from the style of the given spec. Until a setter is called,
+         * {@link #build()} returns that same spec.
+         */
+        public Builder(FloatingToastSpec spec) {
+            this.gravity = spec.gravity;
+            this.xOffset = spec.xOffset;
+            this.yOffset = spec.yOffset;
+            this.fadeOutDuration = spec.fadeOutDuration;
+            this.textColor = spec.textColor;
+            this.hasTextColor = spec.hasTextColor;
+            this.typeface = spec.typeface;
+            this.hasTypeface = spec.hasTypeface;
+            this.textStyle = spec.textStyle;
+            this.textSizeUnit = spec.textSizeUnit;
+            this.textSize = spec.textSize;
+            this.floatDistance = spec.floatDistance;
+            this.floatInterpolator = spec.floatInterpolator;
+            this.standByDuration = spec.standByDuration;
+            this.shadowRadius = spec.shadowRadius;
+            this.shadowDx = spec.shadowDx;
+            this.shadowDy = spec.shadowDy;
+            this.shadowColor = spec.shadowColor;
+            this.isBackgroundBlurEnabled = spec.isBackgroundBlurEnabled;
+            this.textRenderer = spec.textRenderer;
+            this.animationEngine = spec.animationEngine;
+            this.windowMode = spec.windowMode;
+            this.spec = spec;
+        }
+
+        Builder(int windowMode) {
+            this.windowMode = windowMode;
+        }
+
+        /**
+         * Keeps the offsets, like {@link android.view.Window#setGravity(int)} does.
+         *
+         * @see FloatingToastStyle#setGravity(int)
+         */
+        public Builder setGravity(int gravity) {
+            this.gravity = gravity;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setGravity(int, int, int)
+         */
+        public Builder setGravity(int gravity, int xOffset, int yOffset) {
+            this.gravity = gravity;
+            this.xOffset = xOffset;
+            this.yOffset = yOffset;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setFadeOutDuration(int)
+         */
+        public Builder setFadeOutDuration(int fadeOutDuration) {
+            this.fadeOutDuration = fadeOutDuration;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextColor(int)
+         */
+        public Builder setTextColor(int color) {
+            this.textColor = color;
+            this.hasTextColor = true;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextTypeface(Typeface)
+         */
+        public Builder setTextTypeface(Typeface typeface) {
+            this.typeface = typeface;
+            this.hasTypeface = true;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextStyle(int)
+         */
+        public Builder setTextStyle(int style) {
+            if(style == Typeface.NORMAL || style == Typeface.BOLD
+                    || style == Typeface.BOLD_ITALIC || style == Typeface.ITALIC) {
+                this.textStyle = style;
+                changed();
+            }
+            return this;
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextSizeInSp(float)
+         */
+        public Builder setTextSizeInSp(float sizeInSp) {
+            return setTextSizeCustomUnit(TypedValue.COMPLEX_UNIT_SP, sizeInSp);
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextSizeInDp(float)
+         */
+        public Builder setTextSizeInDp(float sizeInDp) {
+            return setTextSizeCustomUnit(TypedValue.COMPLEX_UNIT_DIP, sizeInDp);
+        }
+
+        /**
+         * @param unit See {@link TypedValue} for the possible dimension units.
+         * @see FloatingToastStyle#setTextSizeCustomUnit(int, float)
+         */
+        public Builder setTextSizeCustomUnit(int unit, float size) {
+            this.textSizeUnit = unit;
+            this.textSize = size;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setFloatDistance(float)
+         */
+        public Builder setFloatDistance(float floatDistance) {
+            if(floatDistance > 100) floatDistance = 100;
+            this.floatDistance = floatDistance;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setFloatMotion(int)
+         */
+        public Builder setFloatMotion(int floatMotion) {
+            if(floatMotion == FloatingToast.FLOAT_MOTION_EASE)
+                return setFloatInterpolator(null);
+            if(floatMotion == FloatingToast.FLOAT_MOTION_SPRING)
+                return setFloatInterpolator(ToastMotion.SPRING);
+            if(floatMotion == FloatingToast.FLOAT_MOTION_FLING)
+                return setFloatInterpolator(ToastMotion.FLING);
+            return this;
+        }
+
+        /**
+         * @see FloatingToastStyle#setFloatInterpolator(TimeInterpolator)
+         */
+        public Builder setFloatInterpolator(TimeInterpolator interpolator) {
+            this.floatInterpolator = interpolator;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setStandByDuration(int)
+         */
+        public Builder setStandByDuration(int standByDuration) {
+            this.standByDuration = Math.max(0, standByDuration);
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setShadowLayer(float, float, float, int)
+         */
+        public Builder setShadowLayer(float shadowRadius, float shadowDx, float shadowDy, int shadowColor) {
+            if(shadowRadius > 25) shadowRadius = 25;
+            this.shadowRadius = shadowRadius;
+            this.shadowDx = shadowDx;
+            this.shadowDy = shadowDy;
+            this.shadowColor = shadowColor;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setBackgroundBlur(boolean)
+         */
+        public Builder setBackgroundBlur(boolean enabled) {
+            this.isBackgroundBlurEnabled = enabled;
+            return changed();
+        }
+
+        /**
+         * @see FloatingToastStyle#setTextRenderer(int)
+         */
+        public Builder setTextRenderer(int textRenderer) {
+            if(textRenderer == FloatingToast.TEXT_RENDERER_LAYERED
+                    || textRenderer == FloatingToast.TEXT_RENDERER_SINGLE_PASS) {
+                this.textRenderer = textRenderer;
+                changed();
+            }
+            return this;
+        }
+
+        /**
+         * @see FloatingToastStyle#setAnimationEngine(int)
+         */
+        public Builder setAnimationEngine(int animationEngine) {
+            if(animationEngine == FloatingToast.ANIMATION_ENGINE_DEFAULT
+                    || animationEngine == FloatingToast.ANIMATION_ENGINE_HARDWARE_LAYER) {
+                this.animationEngine = animationEngine;
+                changed();
+            }
+            return this;
+        }
+
+        /**
+         * @see FloatingToastStyle#setWindowMode(int)
+         */
+        public Builder setWindowMode(int windowMode) {
+            if(windowMode == FloatingToast.WINDOW_MODE_DIALOG || windowMode == FloatingToast.WINDOW_MODE_OVERLAY) {
+                this.windowMode = windowMode;
+                changed();
+            }
+            return this;
+        }
+
+        public FloatingToastSpec build() {
+            if(spec == null)
+                spec = new FloatingToastSpec(this);
+            return spec;
+        }
+
+        private Builder changed() {
+            spec = null;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.hariprasanths.floatingtoast;
+
+/**
+ * Snapshot of the toast counters, since the process started.
+ *
+ * @see FloatingToast#getToastStats()
+ */
+public final class FloatingToastStats {
+
+    private final int shownCount;
+    private final int dismissedEarlyCount;
+    private final int outsideTouchDismissedCount;
+    private final int poolHitCount;
+    private final int poolMissCount;
+
+    FloatingToastStats(int shownCount, int dismissedEarlyCount, int outsideTouchDismissedCount,
+                       int poolHitCount, int poolMissCount) {
+        this.shownCount = shownCount;
+        this.dismissedEarlyCount = dismissedEarlyCount;
+        this.outsideTouchDismissedCount = outsideTouchDismissedCount;
+        this.poolHitCount = poolHitCount;
+        this.poolMissCount = poolMissCount;
+    }
+
+    /**
+     * @return Number of times a toast window was shown.
+     */
+    public int getShownCount() {
+        return shownCount;
+    }
+
+    /**
+     * @return Number of toasts dismissed because their activity was paused or
+     *         destroyed before their animation ended.
+     */
+    public int getDismissedEarlyCount() {
+        return dismissedEarlyCount;
+    }
+
+    /**
+     * @return Number of toasts dismissed by a touch outside of them.
+     */
+    public int getOutsideTouchDismissedCount() {
+        return outsideTouchDismissedCount;
+    }
+
+    /**
+     * @return Number of times a toast took an idle window from the window pool.
+     */
+    public int getPoolHitCount() {
+        return poolHitCount;
+    }
+
+    /**
+     * @return Number of times a toast had to inflate a new window.
+     */
+    public int getPoolMissCount() {
+        return poolMissCount;
+    }
+
+    @Override
+    public String toString() {
+        return "FloatingToastStats{shown=" + shownCount
+                + ", dismissedEarly=" + dismissedEarlyCount
+                + ", outsideTouchDismissed=" + outsideTouchDismissedCount
+                + ", poolHits=" + poolHitCount
+                + ", poolMisses=" + poolMissCount + "}";
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.hariprasanths.floatingtoast;
 
+import android.animation.TimeInterpolator;
 import android.graphics.Typeface;
 import android.view.View;
 
@@ -25,11 +26,27 @@ public interface FloatingToastStyle {
 
     FloatingToastStyle setFloatDistance(float floatDistance);
 
+    FloatingToastStyle setFloatMotion(int floatMotion);
+
+    FloatingToastStyle setFloatInterpolator(TimeInterpolator interpolator);
+
+    FloatingToastStyle setStandByDuration(int standByDuration);
+
     FloatingToastStyle setShadowLayer(float shadowRadius, float shadowDx, float shadowDy, int shadowColor);
 
     FloatingToastStyle setBackgroundBlur(boolean bool);
 
-    void showAtTouchPosition(View view);
+    FloatingToastStyle setTextRenderer(int textRenderer);
+
+    FloatingToastStyle setAnimationEngine(int animationEngine);
+
+    FloatingToastStyle setOnFramesRenderedListener(FloatingToast.OnFramesRenderedListener listener);
+
+    FloatingToastStyle setWindowMode(int windowMode);
+
+    FloatingToastStyle setToastCallback(ToastHandle.Callback callback);
+
+    ToastHandle showAtTouchPosition(View view);
 
-    void show();
+    ToastHandle show();
 }
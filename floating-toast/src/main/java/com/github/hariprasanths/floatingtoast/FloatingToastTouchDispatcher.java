@@ -0,0 +1,131 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+
+/**
+ * Shows toasts at the touch position for the children of one parent, e.g. the
+ * items of a RecyclerView, instead of one {@link FloatingToast#showAtTouchPosition(View)}
+ * listener per child. Nothing is kept per child: the tapped child is looked up
+ * when the touch goes down, and its toast is only made once the tap ends on it.
+ * <p>
+ * The dispatcher only observes the touches, so the listeners of the parent and
+ * of its children keep working. Feed it every touch event of the parent, e.g.
+ * from a {@code RecyclerView.OnItemTouchListener}:
+ *
+ * <pre>
+ * final FloatingToastTouchDispatcher dispatcher = new FloatingToastTouchDispatcher(recyclerView,
+ *         new FloatingToastTouchDispatcher.ToastFactory() {
+ *             public FloatingToast makeToast(View child) {
+ *                 return FloatingToast.makeToast(child, "Tapped", FloatingToast.LENGTH_SHORT);
+ *             }
+ *         });
+ * recyclerView.addOnItemTouchListener(new RecyclerView.SimpleOnItemTouchListener() {
+ *     public boolean onInterceptTouchEvent(RecyclerView rv, MotionEvent event) {
+ *         dispatcher.onTouchEvent(event);
+ *         return false;
+ *     }
+ * });
+ * </pre>
+ *
+ * or from an overridden {@link ViewGroup#dispatchTouchEvent(MotionEvent)} of the parent.
+ * Must only be used from the main thread.
+ */
+public final class FloatingToastTouchDispatcher {
+
+    /**
+     * Makes the toast of a tapped child.
+     */
+    public interface ToastFactory {
+        /**
+         * @param child The tapped child of the parent.
+         * @return The toast to show at the touch position, or null for none.
+         */
+        FloatingToast makeToast(View child);
+    }
+
+    private final ViewGroup parent;
+    private final ToastFactory toastFactory;
+    private final int touchSlopSquare;
+
+    private View touchedChild;
+    private float downX;
+    private float downY;
+
+    /**
+     * @param parent       The view whose direct children show toasts.
+     * @param toastFactory Makes the toast of a child, when it is tapped.
+     */
+    public FloatingToastTouchDispatcher(ViewGroup parent, ToastFactory toastFactory) {
+        this.parent = parent;
+        this.toastFactory = toastFactory;
+        int touchSlop = ViewConfiguration.get(parent.getContext()).getScaledTouchSlop();
+        this.touchSlopSquare = touchSlop * touchSlop;
+    }
+
+    /**
+     * Observes a touch event of the parent, in the parent's coordinates.
+     * Allocates nothing until a tap ends on a child.
+     */
+    public void onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downX = event.getX();
+                downY = event.getY();
+                touchedChild = findChildUnder(downX, downY);
+                break;
+
+            case MotionEvent.ACTION_MOVE:
+                // Like a click, the tap ends once the touch moved past the touch slop.
+                if(touchedChild != null && isPastTouchSlop(event))
+                    touchedChild = null;
+                break;
+
+            case MotionEvent.ACTION_UP:
+                View child = touchedChild;
+                touchedChild = null;
+                if(child != null && !isPastTouchSlop(event) && child.getParent() == parent)
+                    showToast(child, event.getRawX(), event.getRawY());
+                break;
+
+            case MotionEvent.ACTION_POINTER_DOWN:
+            case MotionEvent.ACTION_CANCEL:
+                touchedChild = null;
+                break;
+        }
+    }
+
+    private void showToast(View child, float rawX, float rawY) {
+        FloatingToast toast = toastFactory.makeToast(child);
+        if(toast != null)
+            toast.showAtRawPosition(rawX, rawY);
+    }
+
+    private boolean isPastTouchSlop(MotionEvent event) {
+        float dx = event.getX() - downX;
+        float dy = event.getY() - downY;
+        return dx * dx + dy * dy > touchSlopSquare;
+    }
+
+    /**
+     * @return The topmost visible child under the point, in the parent's coordinates.
+     */
+    private View findChildUnder(float x, float y) {
+        float scrolledX = x + parent.getScrollX();
+        float scrolledY = y + parent.getScrollY();
+        for (int i = parent.getChildCount() - 1; i >= 0; i--) {
+            View child = parent.getChildAt(i);
+            if(child.getVisibility() != View.VISIBLE)
+                continue;
+
+            float translationX = child.getTranslationX();
+            float translationY = child.getTranslationY();
+            if(scrolledX >= child.getLeft() + translationX && scrolledX < child.getRight() + translationX
+                    && scrolledY >= child.getTop() + translationY && scrolledY < child.getBottom() + translationY)
+                return child;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,312 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.Layout;
+import android.text.Spanned;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * Draws the toast text and its blurred background from a single {@link StaticLayout}.
+ * <p>
+ * The default toast stacks three TextViews (two offset blur layers and the message),
+ * each of which measures, lays out and draws the same text. This view lays out the
+ * text once and then draws the two blurred glyph passes and the main pass from that
+ * layout, with the same offsets, radius and opacity as the stacked TextViews.
+ *
+ * @see FloatingToast#TEXT_RENDERER_SINGLE_PASS
+ */
+public class FloatingToastView extends View {
+
+    static final float BLUR_ALPHA = 0.16f;
+    static final float BLUR_RADIUS = 24;
+    static final float BLUR_DX = 16;
+    static final float BLUR_DY = 4;
+    static final int BLUR_SHADOW_COLOR = Color.BLACK;
+    private static final int HALO_MARGIN_X = (int) Math.ceil(BLUR_RADIUS + BLUR_DX);
+    private static final int HALO_MARGIN_TOP = (int) Math.ceil(BLUR_RADIUS - BLUR_DY);
+    private static final int HALO_MARGIN_BOTTOM = (int) Math.ceil(BLUR_RADIUS + BLUR_DY);
+    private static final float DEFAULT_TEXT_SIZE_DP = 16;
+
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint haloPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private CharSequence text = "";
+    private final int defaultTextColor;
+    private final float defaultTextSize;
+    private int textColor;
+    private int blurTextColor = Color.WHITE;
+    private float shadowRadius;
+    private float shadowDx;
+    private float shadowDy;
+    private int shadowColor;
+    private boolean isBlurEnabled = true;
+    private StaticLayout layout;
+    private Bitmap halo;
+
+    public FloatingToastView(Context context) {
+        this(context, null);
+    }
+
+    public FloatingToastView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public FloatingToastView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        final TypedArray styledAttributes = context.getTheme().obtainStyledAttributes(
+                new int[] { android.R.attr.textColorPrimary });
+        defaultTextColor = styledAttributes.getColor(0, Color.BLACK);
+        styledAttributes.recycle();
+        textColor = defaultTextColor;
+
+        textPaint.density = getResources().getDisplayMetrics().density;
+        defaultTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                DEFAULT_TEXT_SIZE_DP, getResources().getDisplayMetrics());
+        textPaint.setTextSize(defaultTextSize);
+    }
+
+    /**
+     * Restores the style the view had right after inflation, so that a pooled
+     * window starts from a clean slate.
+     */
+    void reset() {
+        textColor = defaultTextColor;
+        blurTextColor = Color.WHITE;
+        textPaint.setTextSize(defaultTextSize);
+        textPaint.setTypeface(null);
+        textPaint.setFakeBoldText(false);
+        textPaint.setTextSkewX(0);
+        shadowRadius = 0;
+        shadowDx = 0;
+        shadowDy = 0;
+        shadowColor = 0;
+        isBlurEnabled = true;
+        invalidateLayout();
+    }
+
+    public void setText(CharSequence text) {
+        this.text = text != null ? text : "";
+        invalidateLayout();
+    }
+
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Sets the color of the text and of its blurred background.
+     */
+    public void setTextColor(int color) {
+        this.textColor = color;
+        if(this.blurTextColor != color) {
+            this.blurTextColor = color;
+            this.halo = null;
+        }
+        invalidate();
+    }
+
+    public int getTextColor() {
+        return textColor;
+    }
+
+    /**
+     * Set the text size to a given unit and value. See {@link TypedValue}
+     * for the possible dimension units.
+     */
+    public void setTextSize(int unit, float size) {
+        float sizeInPx = TypedValue.applyDimension(unit, size, getResources().getDisplayMetrics());
+        if(sizeInPx != textPaint.getTextSize()) {
+            textPaint.setTextSize(sizeInPx);
+            invalidateLayout();
+        }
+    }
+
+    /**
+     * @return The text size in pixels.
+     */
+    public float getTextSize() {
+        return textPaint.getTextSize();
+    }
+
+    public void setTypeface(Typeface typeface) {
+        if(textPaint.getTypeface() != typeface) {
+            textPaint.setTypeface(typeface);
+            invalidateLayout();
+        }
+    }
+
+    /**
+     * Sets the typeface and style in which the text should be displayed,
+     * and turns on the fake bold and italic bits in the Paint if the
+     * Typeface that you provided does not have all the bits in the
+     * style that you specified. Behaves like {@link android.widget.TextView#setTypeface(Typeface, int)}.
+     */
+    public void setTypeface(Typeface typeface, int style) {
+        if(style > 0) {
+            typeface = typeface == null ? Typeface.defaultFromStyle(style) : Typeface.create(typeface, style);
+            int typefaceStyle = typeface != null ? typeface.getStyle() : 0;
+            int need = style & ~typefaceStyle;
+            textPaint.setFakeBoldText((need & Typeface.BOLD) != 0);
+            textPaint.setTextSkewX((need & Typeface.ITALIC) != 0 ? -0.25f : 0);
+        } else {
+            textPaint.setFakeBoldText(false);
+            textPaint.setTextSkewX(0);
+        }
+        textPaint.setTypeface(typeface);
+        invalidateLayout();
+    }
+
+    public Typeface getTypeface() {
+        return textPaint.getTypeface();
+    }
+
+    /**
+     * @return The paint used for all three passes. Do not modify it directly.
+     */
+    public TextPaint getPaint() {
+        return textPaint;
+    }
+
+    public void setShadowLayer(float radius, float dx, float dy, int color) {
+        this.shadowRadius = radius;
+        this.shadowDx = dx;
+        this.shadowDy = dy;
+        this.shadowColor = color;
+        invalidate();
+    }
+
+    /**
+     * Enables or disables the two blurred glyph passes drawn behind the text.
+     */
+    public void setBlurEnabled(boolean enabled) {
+        if(this.isBlurEnabled != enabled) {
+            this.isBlurEnabled = enabled;
+            invalidate();
+        }
+    }
+
+    public boolean isBlurEnabled() {
+        return isBlurEnabled;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+
+        int availableWidth = widthMode == MeasureSpec.UNSPECIFIED
+                ? Integer.MAX_VALUE : widthSize - horizontalPadding;
+        int desiredWidth = (int) Math.ceil(Layout.getDesiredWidth(text, textPaint));
+        int layoutWidth = Math.max(0, Math.min(desiredWidth, availableWidth));
+
+        if(layout == null || layout.getWidth() != layoutWidth) {
+            layout = buildLayout(layoutWidth);
+            halo = null;
+        }
+
+        int width = widthMode == MeasureSpec.EXACTLY
+                ? widthSize : layoutWidth + horizontalPadding;
+        int height = layout.getHeight() + getPaddingTop() + getPaddingBottom();
+
+        setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if(layout == null)
+            return;
+
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+
+        if(isBlurEnabled) {
+            // The halo of spanned text depends on its spans, which are not part of the key.
+            if(halo == null && BlurCache.getInstance().isEnabled() && !(text instanceof Spanned))
+                halo = obtainHalo();
+
+            if(halo != null)
+                canvas.drawBitmap(halo, -HALO_MARGIN_X, -HALO_MARGIN_TOP, haloPaint);
+            else
+                drawBlurPasses(canvas);
+        }
+        drawPass(canvas, textColor, shadowRadius, shadowDx, shadowDy, shadowColor, 1.0f);
+
+        canvas.restore();
+    }
+
+    private void drawBlurPasses(Canvas canvas) {
+        drawPass(canvas, blurTextColor, BLUR_RADIUS, BLUR_DX, BLUR_DY, BLUR_SHADOW_COLOR, BLUR_ALPHA);
+        drawPass(canvas, blurTextColor, BLUR_RADIUS, -BLUR_DX, BLUR_DY, BLUR_SHADOW_COLOR, BLUR_ALPHA);
+    }
+
+    /**
+     * Returns the blurred halo for the current text and style, rendering it into
+     * the shared {@link BlurCache} on a miss.
+     */
+    private Bitmap obtainHalo() {
+        BlurCache.Key key = new BlurCache.Key(text.toString(), textPaint.getTextSize(),
+                textPaint.getTypeface(), textPaint.isFakeBoldText(), textPaint.getTextSkewX(),
+                layout.getWidth(), blurTextColor, BLUR_RADIUS, BLUR_DX, BLUR_DY, BLUR_SHADOW_COLOR);
+        Bitmap bitmap = BlurCache.getInstance().get(key);
+        if(bitmap != null)
+            return bitmap;
+
+        int width = layout.getWidth() + 2 * HALO_MARGIN_X;
+        int height = layout.getHeight() + HALO_MARGIN_TOP + HALO_MARGIN_BOTTOM;
+        if(width <= 0 || height <= 0)
+            return null;
+
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas haloCanvas = new Canvas(bitmap);
+        haloCanvas.translate(HALO_MARGIN_X, HALO_MARGIN_TOP);
+        drawBlurPasses(haloCanvas);
+        BlurCache.getInstance().put(key, bitmap);
+        return bitmap;
+    }
+
+    private void drawPass(Canvas canvas, int color, float radius, float dx, float dy,
+                          int shadowColor, float alpha) {
+        textPaint.setColor(multiplyAlpha(color, alpha));
+        if(radius > 0)
+            textPaint.setShadowLayer(radius, dx, dy, multiplyAlpha(shadowColor, alpha));
+        else
+            textPaint.clearShadowLayer();
+        layout.draw(canvas);
+    }
+
+    private void invalidateLayout() {
+        layout = null;
+        halo = null;
+        requestLayout();
+        invalidate();
+    }
+
+    @SuppressWarnings("deprecation")
+    private StaticLayout buildLayout(int width) {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, width)
+                    .setIncludePad(true)
+                    .build();
+        }
+        return new StaticLayout(text, textPaint, width, Layout.Alignment.ALIGN_NORMAL,
+                1.0f, 0.0f, true);
+    }
+
+    private static int multiplyAlpha(int color, float alpha) {
+        int newAlpha = Math.round(Color.alpha(color) * alpha);
+        return (color & 0x00ffffff) | (newAlpha << 24);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * {@link ToastAnimationDriver.FrameClock} backed by the {@link Choreographer} of the
+ * main thread, so that the animation advances in step with the display. Before API 16
+ * frames are approximated by posting to the main looper every {@link #FRAME_DELAY_MILLIS}.
+ */
+final class MainThreadFrameClock implements ToastAnimationDriver.FrameClock {
+
+    private static final long FRAME_DELAY_MILLIS = 16;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private ToastAnimationDriver driver;
+    private ChoreographerCallback choreographerCallback;
+
+    private final Runnable frameTask = new Runnable() {
+        @Override
+        public void run() {
+            driver.doFrame(SystemClock.uptimeMillis());
+        }
+    };
+
+    @Override
+    public void postFrame(ToastAnimationDriver driver) {
+        this.driver = driver;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if(choreographerCallback == null)
+                choreographerCallback = new ChoreographerCallback();
+            Choreographer.getInstance().postFrameCallback(choreographerCallback);
+        } else {
+            handler.postDelayed(frameTask, FRAME_DELAY_MILLIS);
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class ChoreographerCallback implements Choreographer.FrameCallback {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            driver.doFrame(frameTimeNanos / 1000000);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * {@link FloatingToastScheduler.Timer} backed by the main looper.
+ */
+final class MainThreadTimer implements FloatingToastScheduler.Timer {
+
+    static final FloatingToastScheduler.Clock CLOCK = new FloatingToastScheduler.Clock() {
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+    };
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void schedule(Runnable task, long uptimeMillis) {
+        handler.postAtTime(task, uptimeMillis);
+    }
+
+    @Override
+    public void cancel(Runnable task) {
+        handler.removeCallbacks(task);
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.content.Context;
+import android.util.TypedValue;
+import android.view.ContextThemeWrapper;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.Animation;
+import android.view.animation.AnimationUtils;
+import android.widget.FrameLayout;
+
+/**
+ * A toast drawn as a plain view in a {@link ToastOverlayContainer} on top of the
+ * activity's own content, instead of in a window of its own. Showing it adds
+ * no window to the window manager and no extra surface to compose.
+ *
+ * @see FloatingToast#WINDOW_MODE_OVERLAY
+ */
+final class OverlayToastWindow implements ToastWindow {
+
+    private final Activity activity;
+    private final ToastContent content;
+    private final FrameLayout.LayoutParams layoutParams;
+    private final Animation popInAnimation;
+
+    private FloatingToast owner;
+    private boolean isRecyclable = true;
+    private FloatingToastSpec appliedSpec;
+    private ToastOverlayContainer container;
+
+    OverlayToastWindow(Activity activity) {
+        this.activity = activity;
+
+        View root = LayoutInflater.from(getDialogThemedContext(activity))
+                .inflate(R.layout.layout_toast, null);
+        content = new ToastContent(root);
+        layoutParams = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.CENTER);
+        popInAnimation = AnimationUtils.loadAnimation(activity, R.anim.pop_in_normal);
+    }
+
+    /**
+     * The text of a {@link ToastDialog} is styled by the activity's dialog theme,
+     * the overlay inflates its content with the same theme so that both look alike.
+     */
+    private static Context getDialogThemedContext(Activity activity) {
+        TypedValue outValue = new TypedValue();
+        activity.getTheme().resolveAttribute(android.R.attr.dialogTheme, outValue, true);
+        if(outValue.resourceId == 0)
+            return activity;
+        return new ContextThemeWrapper(activity, outValue.resourceId);
+    }
+
+    @Override
+    public int getWindowMode() {
+        return FloatingToast.WINDOW_MODE_OVERLAY;
+    }
+
+    @Override
+    public Activity getActivity() {
+        return activity;
+    }
+
+    @Override
+    public ToastContent getContent() {
+        return content;
+    }
+
+    @Override
+    public View getAnimatedView() {
+        return content.root;
+    }
+
+    @Override
+    public void bind(FloatingToast owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public boolean isBoundTo(FloatingToast toast) {
+        return owner == toast;
+    }
+
+    @Override
+    public void setRecyclable(boolean recyclable) {
+        this.isRecyclable = recyclable;
+    }
+
+    @Override
+    public FloatingToastSpec getAppliedSpec() {
+        return appliedSpec;
+    }
+
+    @Override
+    public void setAppliedSpec(FloatingToastSpec spec) {
+        this.appliedSpec = spec;
+    }
+
+    /**
+     * The overlay spans the whole width like the dialog window does, so only the
+     * vertical offset has an effect.
+     */
+    @Override
+    public void setPosition(int gravity, int xOffset, int yOffset) {
+        layoutParams.gravity = gravity;
+        if((gravity & Gravity.VERTICAL_GRAVITY_MASK) == Gravity.BOTTOM) {
+            layoutParams.topMargin = 0;
+            layoutParams.bottomMargin = yOffset;
+        } else {
+            layoutParams.topMargin = yOffset;
+            layoutParams.bottomMargin = 0;
+        }
+
+        if(isShowing())
+            content.root.setLayoutParams(layoutParams);
+    }
+
+    @Override
+    public void show() {
+        if(isShowing())
+            return;
+
+        container = ToastOverlayContainer.obtain(activity);
+        container.addWindow(this, layoutParams);
+        content.root.startAnimation(popInAnimation);
+    }
+
+    @Override
+    public void dismiss() {
+        if(!isShowing())
+            return;
+
+        content.root.clearAnimation();
+        container.removeWindow(this);
+        container = null;
+        onDismiss();
+    }
+
+    @Override
+    public boolean isShowing() {
+        return content.root.getParent() != null;
+    }
+
+    @Override
+    public void reset() {
+        View root = content.root;
+        root.setTranslationY(0);
+        root.setAlpha(1.0f);
+
+        isRecyclable = true;
+    }
+
+    void onOutsideTouch(MotionEvent event) {
+        if(owner != null)
+            owner.onOutsideTouch(event);
+    }
+
+    private void onDismiss() {
+        content.root.setLayerType(View.LAYER_TYPE_NONE, null);
+
+        FloatingToast toast = owner;
+        if(toast != null)
+            toast.onWindowDismissed(this, isRecyclable);
+
+        if(isRecyclable) {
+            owner = null;
+            ToastWindowPool.release(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.animation.TimeInterpolator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Drives the float and fade animation of every shown toast from a single frame
+ * callback, so that translation, alpha and dismissal share one timeline.
+ * <p>
+ * The timing of the running toasts is kept in primitive arrays and stepped in one
+ * pass per frame, whatever the number of toasts; a {@link Timeline} only receives
+ * the resulting values.
+ * <p>
+ * A toast floats up by its distance over its duration, along its
+ * {@link Timeline#floatInterpolator}, stands by, then fades out.
+ * Its {@link Timeline#onEnd()} is called on the very frame the fade ends, after
+ * that frame's values have been applied. Time starts on the first frame after
+ * {@link #start(Timeline)}, like it does for the framework animators.
+ * <p>
+ * Must only be used from the main thread.
+ */
+final class ToastAnimationDriver {
+
+    private static final long NOT_STARTED = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static ToastAnimationDriver instance;
+
+    private final FrameClock frameClock;
+    private final ArrayList<Timeline> finished = new ArrayList<>();
+    private boolean isFrameScheduled = false;
+
+    // State of the running timelines, one slot per timeline. Slots are kept
+    // packed in [0, count) by moving the last slot into a removed one.
+    private int count;
+    private Timeline[] timelines = new Timeline[INITIAL_CAPACITY];
+    private long[] startTimes = new long[INITIAL_CAPACITY];
+    private long[] floatDurations = new long[INITIAL_CAPACITY];
+    private long[] fadeStartTimes = new long[INITIAL_CAPACITY];
+    private long[] fadeDurations = new long[INITIAL_CAPACITY];
+    private float[] distances = new float[INITIAL_CAPACITY];
+    private TimeInterpolator[] floatInterpolators = new TimeInterpolator[INITIAL_CAPACITY];
+    private float[] translations = new float[INITIAL_CAPACITY];
+    private float[] alphas = new float[INITIAL_CAPACITY];
+
+    ToastAnimationDriver(FrameClock frameClock) {
+        this.frameClock = frameClock;
+    }
+
+    static ToastAnimationDriver getInstance() {
+        if(instance == null)
+            instance = new ToastAnimationDriver(new MainThreadFrameClock());
+        return instance;
+    }
+
+    /**
+     * Starts the timeline, or restarts it from the beginning if it is already running.
+     */
+    void start(Timeline timeline) {
+        int index = timeline.index;
+        if(index < 0) {
+            ensureCapacity(count + 1);
+            index = count++;
+            timelines[index] = timeline;
+            timeline.index = index;
+        }
+
+        startTimes[index] = NOT_STARTED;
+        floatDurations[index] = timeline.duration;
+        fadeStartTimes[index] = timeline.duration + timeline.standByDuration;
+        fadeDurations[index] = timeline.fadeOutDuration;
+        distances[index] = timeline.distance;
+        floatInterpolators[index] = timeline.floatInterpolator;
+        scheduleFrame();
+    }
+
+    /**
+     * Stops the timeline without calling {@link Timeline#onEnd()}.
+     */
+    void cancel(Timeline timeline) {
+        if(timeline.index >= 0)
+            removeAt(timeline.index);
+    }
+
+    int getRunningCount() {
+        return count;
+    }
+
+    /**
+     * Called by the {@link FrameClock} once per requested frame. Computes the
+     * values of all running timelines, applies them, then ends the finished ones.
+     *
+     * @param frameTimeMillis Time of the frame, in the time base of {@code SystemClock.uptimeMillis()}.
+     */
+    void doFrame(long frameTimeMillis) {
+        ToastTrace.beginSection(ToastTrace.DO_FRAME);
+        try {
+            stepFrame(frameTimeMillis);
+        } finally {
+            ToastTrace.endSection();
+        }
+    }
+
+    private void stepFrame(long frameTimeMillis) {
+        isFrameScheduled = false;
+
+        int n = count;
+        for (int i = 0; i < n; i++) {
+            if(startTimes[i] == NOT_STARTED)
+                startTimes[i] = frameTimeMillis;
+
+            long elapsed = frameTimeMillis - startTimes[i];
+            translations[i] = -distances[i] * interpolate(elapsed, 0, floatDurations[i], floatInterpolators[i]);
+            alphas[i] = 1.0f - interpolate(elapsed, fadeStartTimes[i], fadeDurations[i], null);
+        }
+
+        for (int i = 0; i < n; i++)
+            timelines[i].onFrame(translations[i], alphas[i]);
+
+        // Walking backwards, the slot moved into a removed one was already checked.
+        for (int i = n - 1; i >= 0; i--) {
+            if(frameTimeMillis - startTimes[i] >= fadeStartTimes[i] + fadeDurations[i]) {
+                finished.add(timelines[i]);
+                removeAt(i);
+            }
+        }
+
+        // Ending a toast dismisses it, which may show and start the next one.
+        for (int i = finished.size() - 1; i >= 0; i--)
+            finished.get(i).onEnd();
+        finished.clear();
+
+        if(count > 0)
+            scheduleFrame();
+    }
+
+    private void removeAt(int index) {
+        int last = count - 1;
+        timelines[index].index = -1;
+        if(index != last) {
+            timelines[index] = timelines[last];
+            timelines[index].index = index;
+            startTimes[index] = startTimes[last];
+            floatDurations[index] = floatDurations[last];
+            fadeStartTimes[index] = fadeStartTimes[last];
+            fadeDurations[index] = fadeDurations[last];
+            distances[index] = distances[last];
+            floatInterpolators[index] = floatInterpolators[last];
+        }
+        timelines[last] = null;
+        floatInterpolators[last] = null;
+        count = last;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= timelines.length)
+            return;
+
+        int newCapacity = Math.max(capacity, timelines.length * 2);
+        timelines = Arrays.copyOf(timelines, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        floatDurations = Arrays.copyOf(floatDurations, newCapacity);
+        fadeStartTimes = Arrays.copyOf(fadeStartTimes, newCapacity);
+        fadeDurations = Arrays.copyOf(fadeDurations, newCapacity);
+        distances = Arrays.copyOf(distances, newCapacity);
+        floatInterpolators = Arrays.copyOf(floatInterpolators, newCapacity);
+        translations = Arrays.copyOf(translations, newCapacity);
+        alphas = Arrays.copyOf(alphas, newCapacity);
+    }
+
+    private void scheduleFrame() {
+        if(isFrameScheduled)
+            return;
+
+        isFrameScheduled = true;
+        frameClock.postFrame(this);
+    }
+
+    /**
+     * Without an interpolator, same curve as the default interpolator of
+     * {@link android.view.ViewPropertyAnimator},
+     * {@link android.view.animation.AccelerateDecelerateInterpolator}.
+     * Exactly 0 before the start and 1 after the end, whatever the interpolator.
+     */
+    private static float interpolate(long elapsed, long start, long length, TimeInterpolator interpolator) {
+        if(elapsed <= start)
+            return 0.0f;
+        if(elapsed >= start + length)
+            return 1.0f;
+
+        float input = (float) (elapsed - start) / length;
+        if(interpolator != null)
+            return interpolator.getInterpolation(input);
+        return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+    }
+
+    /**
+     * The animation of a single toast. Subclasses apply the values to its view.
+     */
+    abstract static class Timeline {
+        long duration;
+        long standByDuration;
+        long fadeOutDuration;
+        float distance;
+
+        /**
+         * Curve of the float, or null for the default ease in and out.
+         */
+        TimeInterpolator floatInterpolator;
+
+        private int index = -1;
+
+        void set(long duration, long standByDuration, long fadeOutDuration, float distance) {
+            this.duration = Math.max(0, duration);
+            this.standByDuration = Math.max(0, standByDuration);
+            this.fadeOutDuration = Math.max(0, fadeOutDuration);
+            this.distance = distance;
+        }
+
+        boolean isRunning() {
+            return index >= 0;
+        }
+
+        abstract void onFrame(float translationY, float alpha);
+
+        abstract void onEnd();
+    }
+
+    /**
+     * Source of frames. {@link #postFrame(ToastAnimationDriver)} must call
+     * {@link ToastAnimationDriver#doFrame(long)} exactly once, on the next frame.
+     */
+    interface FrameClock {
+        void postFrame(ToastAnimationDriver driver);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.content.res.ColorStateList;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+/**
+ * The inflated {@code layout_toast} of a {@link ToastWindow}: the stacked text views of
+ * the layered renderer and the {@link FloatingToastView} of the single-pass renderer.
+ */
+final class ToastContent {
+
+    final View root;
+    final TextView messageTextView;
+    final TextView blurViewRight;
+    final TextView blurViewLeft;
+    final FloatingToastView toastView;
+
+    private final ColorStateList defaultMessageColors;
+    private final ColorStateList defaultBlurColors;
+    private final float defaultTextSize;
+    private final Typeface defaultTypeface;
+    private PrecomputedTextCompat.Params textParams;
+
+    /**
+     * The text last set on the text views of the layered renderer, as given, before
+     * the views wrap it.
+     */
+    CharSequence layeredText;
+
+    ToastContent(View root) {
+        this.root = root;
+        messageTextView = root.findViewById(R.id.messageTextView);
+        blurViewRight = root.findViewById(R.id.blurViewRight);
+        blurViewLeft = root.findViewById(R.id.blurViewLeft);
+        toastView = root.findViewById(R.id.toastView);
+
+        defaultMessageColors = messageTextView.getTextColors();
+        defaultBlurColors = blurViewRight.getTextColors();
+        defaultTextSize = messageTextView.getTextSize();
+        defaultTypeface = messageTextView.getTypeface();
+    }
+
+    /**
+     * Measures the content with its placeholder text, which loads its fonts and
+     * lays its text out before it is first shown.
+     */
+    void measure() {
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        root.measure(unspecified, unspecified);
+    }
+
+    /**
+     * @return The layout params shared by the text views of the layered renderer,
+     *         read again only after their style changed.
+     */
+    PrecomputedTextCompat.Params getTextParams() {
+        if(textParams == null)
+            textParams = TextViewCompat.getTextMetricsParams(messageTextView);
+        return textParams;
+    }
+
+    /**
+     * Must be called whenever the style of the text views changes.
+     */
+    void invalidateTextParams() {
+        textParams = null;
+    }
+
+    /**
+     * Restores the text views to the state they had right after inflation, so
+     * that the next toast starts from a clean slate.
+     */
+    void reset() {
+        messageTextView.setTextColor(defaultMessageColors);
+        blurViewRight.setTextColor(defaultBlurColors);
+        blurViewLeft.setTextColor(defaultBlurColors);
+
+        messageTextView.setTextSize(TypedValue.COMPLEX_UNIT_PX, defaultTextSize);
+        blurViewRight.setTextSize(TypedValue.COMPLEX_UNIT_PX, defaultTextSize);
+        blurViewLeft.setTextSize(TypedValue.COMPLEX_UNIT_PX, defaultTextSize);
+
+        messageTextView.setTypeface(defaultTypeface, Typeface.NORMAL);
+        blurViewRight.setTypeface(defaultTypeface, Typeface.NORMAL);
+        blurViewLeft.setTypeface(defaultTypeface, Typeface.NORMAL);
+
+        messageTextView.setShadowLayer(0, 0, 0, 0);
+        messageTextView.setVisibility(View.VISIBLE);
+        blurViewRight.setVisibility(View.VISIBLE);
+        blurViewLeft.setVisibility(View.VISIBLE);
+        toastView.reset();
+        toastView.setVisibility(View.GONE);
+        invalidateTextParams();
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+import android.widget.LinearLayout;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A pre-inflated toast window backed by its own {@link Dialog}.
+ *
+ * @see FloatingToast#WINDOW_MODE_DIALOG
+ */
+class ToastDialog extends Dialog implements ToastWindow {
+
+    private final Activity activity;
+    private final ToastContent content;
+
+    private FloatingToast owner;
+    private boolean isRecyclable = true;
+    private FloatingToastSpec appliedSpec;
+
+    ToastDialog(Activity activity) {
+        super(activity);
+        this.activity = activity;
+
+        requestWindowFeature(Window.FEATURE_NO_TITLE);
+        setContentView(R.layout.layout_toast);
+
+        Window window = getWindow();
+        window.setLayout(LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+        window.addFlags(WindowManager.LayoutParams.FLAG_WATCH_OUTSIDE_TOUCH);
+        window.addFlags(WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE);
+        window.setBackgroundDrawableResource(android.R.color.transparent);
+        window.setDimAmount(0.0F);
+        window.setGravity(Gravity.CENTER);
+        window.setWindowAnimations(R.style.ToastAnimation);
+
+        content = new ToastContent(findViewById(R.id.toastRoot));
+    }
+
+    @Override
+    public int getWindowMode() {
+        return FloatingToast.WINDOW_MODE_DIALOG;
+    }
+
+    @Override
+    public Activity getActivity() {
+        return activity;
+    }
+
+    @Override
+    public ToastContent getContent() {
+        return content;
+    }
+
+    @Override
+    public View getAnimatedView() {
+        return getWindow().getDecorView();
+    }
+
+    @Override
+    public void bind(FloatingToast owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public boolean isBoundTo(FloatingToast toast) {
+        return owner == toast;
+    }
+
+    @Override
+    public void setRecyclable(boolean recyclable) {
+        this.isRecyclable = recyclable;
+    }
+
+    @Override
+    public FloatingToastSpec getAppliedSpec() {
+        return appliedSpec;
+    }
+
+    @Override
+    public void setAppliedSpec(FloatingToastSpec spec) {
+        this.appliedSpec = spec;
+    }
+
+    @Override
+    public void setPosition(int gravity, int xOffset, int yOffset) {
+        WindowManager.LayoutParams layoutParams = getWindow().getAttributes();
+        layoutParams.gravity = gravity;
+        layoutParams.x = xOffset;
+        layoutParams.y = yOffset;
+        getWindow().setAttributes(layoutParams);
+    }
+
+    @Override
+    public void reset() {
+        View decorView = getAnimatedView();
+        decorView.setTranslationY(0);
+        decorView.setAlpha(1.0f);
+
+        isRecyclable = true;
+    }
+
+    @Override
+    public boolean onTouchEvent(@NonNull MotionEvent event) {
+        if(event.getAction() == MotionEvent.ACTION_OUTSIDE && owner != null)
+            owner.onOutsideTouch(event);
+        return false;
+    }
+
+    @Override
+    public void onBackPressed() {
+        activity.onBackPressed();
+    }
+
+    /**
+     * Hands the window back right away rather than from the dismiss message the dialog
+     * posts, which could arrive after the toast was shown again in this very window.
+     */
+    @Override
+    public void dismiss() {
+        boolean wasShowing = isShowing();
+        super.dismiss();
+        if(wasShowing)
+            onDismiss();
+    }
+
+    private void onDismiss() {
+        getAnimatedView().setLayerType(View.LAYER_TYPE_NONE, null);
+
+        FloatingToast toast = owner;
+        if(toast != null)
+            toast.onWindowDismissed(this, isRecyclable);
+
+        if(isRecyclable) {
+            owner = null;
+            ToastWindowPool.release(this);
+        }
+    }
+}
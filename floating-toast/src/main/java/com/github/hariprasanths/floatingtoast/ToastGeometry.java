@@ -0,0 +1,111 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.content.res.Configuration;
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
+import android.view.View;
+
+/**
+ * Geometry of an activity's window that toasts are placed with, kept once per
+ * activity on its decor view: the display height, the visible display frame and
+ * the system bar insets of the decor view.
+ * <p>
+ * Both dialog and overlay toast windows are laid out inside the visible display
+ * frame, so its top left corner is the origin of their offsets.
+ * <p>
+ * Reading the visible display frame asks the window manager and reading the
+ * display metrics fills a {@link DisplayMetrics}, so both are only read again
+ * once the configuration, or the size or position of the decor view, has changed,
+ * e.g. on rotation or on a multi-window resize. Must only be used from the main thread.
+ */
+final class ToastGeometry {
+
+    private final Activity activity;
+    private final View decorView;
+    private final DisplayMetrics displayMetrics = new DisplayMetrics();
+    private final Rect visibleFrame = new Rect();
+    private final Rect insets = new Rect();
+    private final Configuration configuration = new Configuration();
+    private final int[] location = new int[2];
+    private int decorX;
+    private int decorY;
+    private int decorWidth;
+    private int decorHeight;
+    private boolean isValid = false;
+
+    private ToastGeometry(Activity activity, View decorView) {
+        this.activity = activity;
+        this.decorView = decorView;
+    }
+
+    static ToastGeometry obtain(Activity activity) {
+        View decorView = activity.getWindow().getDecorView();
+        Object geometry = decorView.getTag(R.id.floating_toast_geometry);
+        if(geometry instanceof ToastGeometry)
+            return (ToastGeometry) geometry;
+
+        ToastGeometry toastGeometry = new ToastGeometry(activity, decorView);
+        decorView.setTag(R.id.floating_toast_geometry, toastGeometry);
+        return toastGeometry;
+    }
+
+    int getDisplayHeight() {
+        update();
+        return displayMetrics.heightPixels;
+    }
+
+    /**
+     * @return The left edge of the visible display frame, on screen.
+     */
+    int getWindowLeft() {
+        update();
+        return visibleFrame.left;
+    }
+
+    /**
+     * @return The top edge of the visible display frame, on screen.
+     */
+    int getWindowTop() {
+        update();
+        return visibleFrame.top;
+    }
+
+    /**
+     * @return The parts of the decor view covered by the system bars. Must not be modified.
+     */
+    Rect getInsets() {
+        update();
+        return insets;
+    }
+
+    private void update() {
+        Configuration currentConfiguration = activity.getResources().getConfiguration();
+        decorView.getLocationOnScreen(location);
+        int width = decorView.getWidth();
+        int height = decorView.getHeight();
+        if(isValid && currentConfiguration.diff(configuration) == 0
+                && location[0] == decorX && location[1] == decorY
+                && width == decorWidth && height == decorHeight)
+            return;
+
+        activity.getWindowManager().getDefaultDisplay().getMetrics(displayMetrics);
+        decorView.getWindowVisibleDisplayFrame(visibleFrame);
+        if(height == 0) {
+            insets.setEmpty();
+        } else {
+            insets.set(Math.max(0, visibleFrame.left - location[0]),
+                    Math.max(0, visibleFrame.top - location[1]),
+                    Math.max(0, location[0] + width - visibleFrame.right),
+                    Math.max(0, location[1] + height - visibleFrame.bottom));
+        }
+
+        configuration.setTo(currentConfiguration);
+        decorX = location[0];
+        decorY = location[1];
+        decorWidth = width;
+        decorHeight = height;
+        // The visible frame of a window that is not laid out yet is the whole display.
+        isValid = height != 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.hariprasanths.floatingtoast;
+
+/**
+ * Controls a toast after {@link FloatingToastStyle#show()} or
+ * {@link FloatingToastStyle#showAtTouchPosition(android.view.View)}: cancel it, change
+ * its text while it is shown, or be told when it is shown and dismissed.
+ * <p>
+ * A toast has a single handle, which stays valid every time it is shown again.
+ * Must only be used from the main thread.
+ */
+public final class ToastHandle {
+
+    /**
+     * Interface definition for callbacks to be invoked as the toast is shown and dismissed.
+     */
+    public interface Callback {
+        void onShown(ToastHandle handle);
+
+        /**
+         * Also invoked when a toast waiting in the {@link FloatingToastScheduler} is canceled.
+         *
+         * @param dismissReason One of the {@code FloatingToastMetrics.DISMISS_REASON_} constants.
+         */
+        void onDismissed(ToastHandle handle, int dismissReason);
+    }
+
+    private final FloatingToast toast;
+    private Callback callback;
+
+    ToastHandle(FloatingToast toast) {
+        this.toast = toast;
+    }
+
+    public FloatingToast getToast() {
+        return toast;
+    }
+
+    /**
+     * Dismiss the toast right away, stopping its animation, or drop it from the
+     * {@link FloatingToastScheduler} if it is still waiting, however many times it was
+     * shown. Its window goes back to the pool. A toast shown at the touch position is
+     * shown again on the next tap.
+     */
+    public void cancel() {
+        toast.cancel();
+    }
+
+    /**
+     * @return True while the window of the toast is shown.
+     */
+    public boolean isShowing() {
+        return toast.isShowing();
+    }
+
+    /**
+     * Change the text of the toast. A shown toast keeps its window and its animation,
+     * only its text is laid out again.
+     *
+     * @param text The text to show. Can be styled text.
+     */
+    public ToastHandle updateText(CharSequence text) {
+        toast.updateText(text);
+        return this;
+    }
+
+    /**
+     * {@link FloatingToastStyle#show()} may show the toast before returning its handle,
+     * register the callbacks with {@link FloatingToastStyle#setToastCallback(Callback)}
+     * to be told about that first show.
+     *
+     * @param callback The callbacks that will run, or null to remove them.
+     */
+    public ToastHandle setCallback(Callback callback) {
+        this.callback = callback;
+        return this;
+    }
+
+    void onShown() {
+        if(callback != null)
+            callback.onShown(this);
+    }
+
+    void onDismissed(int dismissReason) {
+        if(callback != null)
+            callback.onDismissed(this, dismissReason);
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Looper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide registry of the toasts that are currently shown, indexed by activity.
+ * <p>
+ * A single {@link Application.ActivityLifecycleCallbacks} is registered once per
+ * application, no matter how many toasts are shown. Pausing or destroying an
+ * activity dismisses only that activity's toasts, in O(live toasts of the activity).
+ * Activities and toasts are only weakly referenced, and destroying an activity
+ * drops everything the library keeps for it: waiting toasts, shown toasts,
+ * pending prewarms and pooled windows.
+ * <p>
+ * Must only be used from the main thread.
+ */
+final class ToastLifecycleRegistry implements Application.ActivityLifecycleCallbacks {
+
+    private static ToastLifecycleRegistry instance;
+
+    private final Application application;
+    private final WeakHashMap<Activity, ArrayList<Entry>> toastsByActivity = new WeakHashMap<>();
+    // Activity#isDestroyed() only exists from API 17.
+    private final WeakHashMap<Activity, Boolean> destroyedActivities = new WeakHashMap<>();
+    private final WeakHashMap<Activity, ArrayList<ToastPrewarmer>> prewarmersByActivity = new WeakHashMap<>();
+
+    private ToastLifecycleRegistry(Application application) {
+        this.application = application;
+    }
+
+    /**
+     * Makes sure the shared callback is registered with the application of the
+     * given activity.
+     */
+    static ToastLifecycleRegistry getInstance(Activity activity) {
+        Application application = activity.getApplication();
+        if(instance == null || instance.application != application) {
+            if(instance != null)
+                instance.application.unregisterActivityLifecycleCallbacks(instance);
+            instance = new ToastLifecycleRegistry(application);
+            application.registerActivityLifecycleCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Also true on API 14 to 16 for activities destroyed while the registry was registered,
+     * which it is before any window of the activity is taken.
+     *
+     * @return True once the activity is destroyed, e.g. by a configuration change, even
+     *         if it is not finishing.
+     */
+    static boolean isDestroyed(Activity activity) {
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1)
+            return activity.isDestroyed();
+        return instance != null && instance.destroyedActivities.containsKey(activity);
+    }
+
+    /**
+     * Tracks a shown toast until {@link #unregister(Entry)} is called or its
+     * activity is paused or destroyed.
+     */
+    Entry register(Activity activity, FloatingToast toast) {
+        ArrayList<Entry> entries = toastsByActivity.get(activity);
+        if(entries == null) {
+            entries = new ArrayList<>();
+            toastsByActivity.put(activity, entries);
+        }
+
+        Entry entry = new Entry(toast, entries, entries.size());
+        entries.add(entry);
+        return entry;
+    }
+
+    static void unregister(Entry entry) {
+        ArrayList<Entry> entries = entry.entries;
+        if(entries == null)
+            return;
+
+        int lastIndex = entries.size() - 1;
+        Entry last = entries.remove(lastIndex);
+        if(last != entry) {
+            entries.set(entry.index, last);
+            last.index = entry.index;
+        }
+        entry.entries = null;
+        entry.index = -1;
+    }
+
+    /**
+     * Tracks a prewarmer waiting for the main thread to be idle, so that it is dropped
+     * if its activity is destroyed first.
+     */
+    void addPrewarmer(Activity activity, ToastPrewarmer prewarmer) {
+        ArrayList<ToastPrewarmer> prewarmers = prewarmersByActivity.get(activity);
+        if(prewarmers == null) {
+            prewarmers = new ArrayList<>();
+            prewarmersByActivity.put(activity, prewarmers);
+        }
+        prewarmers.add(prewarmer);
+    }
+
+    void removePrewarmer(Activity activity, ToastPrewarmer prewarmer) {
+        ArrayList<ToastPrewarmer> prewarmers = prewarmersByActivity.get(activity);
+        if(prewarmers != null && prewarmers.remove(prewarmer) && prewarmers.isEmpty())
+            prewarmersByActivity.remove(activity);
+    }
+
+    private void removePrewarmers(Activity activity) {
+        ArrayList<ToastPrewarmer> prewarmers = prewarmersByActivity.remove(activity);
+        if(prewarmers == null)
+            return;
+
+        for (int i = 0; i < prewarmers.size(); i++)
+            Looper.myQueue().removeIdleHandler(prewarmers.get(i));
+    }
+
+    int getLiveToastCount(Activity activity) {
+        ArrayList<Entry> entries = toastsByActivity.get(activity);
+        return entries != null ? entries.size() : 0;
+    }
+
+    private void dismissToasts(Activity activity) {
+        ArrayList<Entry> entries = toastsByActivity.remove(activity);
+        if(entries == null)
+            return;
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            entry.entries = null;
+            entry.index = -1;
+
+            FloatingToast toast = entry.get();
+            if(toast != null)
+                toast.onActivityPaused();
+        }
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+        dismissToasts(activity);
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+        destroyedActivities.put(activity, Boolean.TRUE);
+        removePrewarmers(activity);
+        // Before dismissing, so that no waiting toast takes the place of a dismissed one.
+        FloatingToastScheduler.getInstance().prune();
+        dismissToasts(activity);
+        ToastWindowPool.evict(activity);
+    }
+
+    /**
+     * Registration of a single toast. Keeps its position in the activity's list
+     * so that it can be removed in constant time.
+     */
+    static final class Entry extends WeakReference<FloatingToast> {
+        private ArrayList<Entry> entries;
+        private int index;
+
+        private Entry(FloatingToast toast, ArrayList<Entry> entries, int index) {
+            super(toast);
+            this.entries = entries;
+            this.index = index;
+        }
+    }
+}
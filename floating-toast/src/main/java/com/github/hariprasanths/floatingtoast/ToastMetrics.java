@@ -0,0 +1,57 @@
+package com.github.hariprasanths.floatingtoast;
+
+/**
+ * Process-wide toast counters and the {@link FloatingToastMetrics} listener.
+ * <p>
+ * Must only be used from the main thread.
+ */
+final class ToastMetrics {
+
+    private static final ToastMetrics instance = new ToastMetrics();
+
+    private FloatingToastMetrics listener;
+    private int shownCount;
+    private int dismissedEarlyCount;
+    private int outsideTouchDismissedCount;
+    private int poolHitCount;
+    private int poolMissCount;
+
+    private ToastMetrics() {
+    }
+
+    static ToastMetrics getInstance() {
+        return instance;
+    }
+
+    void setListener(FloatingToastMetrics listener) {
+        this.listener = listener;
+    }
+
+    void onPoolAcquired(boolean isHit) {
+        if(isHit)
+            poolHitCount++;
+        else
+            poolMissCount++;
+    }
+
+    void onShown() {
+        shownCount++;
+    }
+
+    void onDismissed(FloatingToast toast, long madeNanos, long shownNanos, long firstFrameNanos,
+                     long fadeStartNanos, int dismissReason) {
+        if(dismissReason == FloatingToastMetrics.DISMISS_REASON_ACTIVITY_PAUSED)
+            dismissedEarlyCount++;
+        else if(dismissReason == FloatingToastMetrics.DISMISS_REASON_OUTSIDE_TOUCH)
+            outsideTouchDismissedCount++;
+
+        if(listener != null)
+            listener.onToastDismissed(toast, madeNanos, shownNanos, firstFrameNanos,
+                    fadeStartNanos, System.nanoTime(), dismissReason);
+    }
+
+    FloatingToastStats getStats() {
+        return new FloatingToastStats(shownCount, dismissedEarlyCount, outsideTouchDismissedCount,
+                poolHitCount, poolMissCount);
+    }
+}
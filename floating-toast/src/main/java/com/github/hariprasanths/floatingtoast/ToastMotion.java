@@ -0,0 +1,85 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * The built-in float motions other than the default ease in and out, which
+ * {@link ToastAnimationDriver} computes itself. Both are shared by every toast and
+ * allocate nothing per frame.
+ *
+ * @see FloatingToast#FLOAT_MOTION_SPRING
+ * @see FloatingToast#FLOAT_MOTION_FLING
+ */
+final class ToastMotion {
+
+    /**
+     * A damped spring released towards the float distance: it overshoots by about
+     * 16%, then settles. Sampled once into a lookup table, as the closed form needs
+     * an exponential and two trigonometric functions per frame.
+     */
+    static final TimeInterpolator SPRING = new SpringInterpolator(0.5, 6.0);
+
+    /**
+     * A flung toast, fast at first then slowing down exponentially.
+     */
+    static final TimeInterpolator FLING = new FlingInterpolator(4.0);
+
+    private ToastMotion() {
+    }
+
+    static final class SpringInterpolator implements TimeInterpolator {
+        private static final int SAMPLE_COUNT = 256;
+
+        private final float[] samples = new float[SAMPLE_COUNT];
+
+        /**
+         * @param dampingRatio Between 0 and 1, the lower the more it bounces.
+         * @param decay        Decay of the amplitude over the whole duration, in
+         *                     time constants; the spring rests once it is over.
+         */
+        SpringInterpolator(double dampingRatio, double decay) {
+            double dampedFrequency = Math.sqrt(1 - dampingRatio * dampingRatio);
+            // Time of the unit frequency spring at which the amplitude has decayed.
+            double length = decay / dampingRatio;
+            for (int i = 0; i < SAMPLE_COUNT; i++) {
+                double t = length * i / (SAMPLE_COUNT - 1);
+                double envelope = Math.exp(-dampingRatio * t);
+                samples[i] = (float) (1 - envelope * (Math.cos(dampedFrequency * t)
+                        + dampingRatio / dampedFrequency * Math.sin(dampedFrequency * t)));
+            }
+            samples[0] = 0;
+            samples[SAMPLE_COUNT - 1] = 1;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            if(input <= 0)
+                return 0;
+            if(input >= 1)
+                return 1;
+
+            float position = input * (SAMPLE_COUNT - 1);
+            int index = (int) position;
+            float fraction = position - index;
+            return samples[index] + (samples[index + 1] - samples[index]) * fraction;
+        }
+    }
+
+    static final class FlingInterpolator implements TimeInterpolator {
+        private final double friction;
+        private final double scale;
+
+        /**
+         * @param friction The higher, the sooner the toast slows down.
+         */
+        FlingInterpolator(double friction) {
+            this.friction = friction;
+            this.scale = 1 / (1 - Math.exp(-friction));
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            return (float) ((1 - Math.exp(-friction * input)) * scale);
+        }
+    }
+}
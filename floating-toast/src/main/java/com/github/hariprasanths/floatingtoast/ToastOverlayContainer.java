@@ -0,0 +1,81 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.view.MotionEvent;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import java.util.ArrayList;
+
+/**
+ * Full-screen layer added once to the decor view of an activity, holding the
+ * {@link OverlayToastWindow}s shown in it. It never consumes touches: a touch
+ * down is only reported to the shown toasts, as an outside touch, and then
+ * passed on to the activity's own views.
+ */
+final class ToastOverlayContainer extends FrameLayout {
+
+    private final Activity activity;
+    private final ArrayList<OverlayToastWindow> shownWindows = new ArrayList<>();
+
+    private ToastOverlayContainer(Activity activity) {
+        super(activity);
+        this.activity = activity;
+        setClipChildren(false);
+    }
+
+    static ToastOverlayContainer obtain(Activity activity) {
+        ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+        Object container = decorView.getTag(R.id.floating_toast_overlay);
+        if(container instanceof ToastOverlayContainer)
+            return (ToastOverlayContainer) container;
+
+        ToastOverlayContainer overlay = new ToastOverlayContainer(activity);
+        decorView.addView(overlay, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        decorView.setTag(R.id.floating_toast_overlay, overlay);
+        return overlay;
+    }
+
+    void addWindow(OverlayToastWindow window, FrameLayout.LayoutParams layoutParams) {
+        updateSystemWindowPadding();
+        shownWindows.add(window);
+        addView(window.getAnimatedView(), layoutParams);
+    }
+
+    void removeWindow(OverlayToastWindow window) {
+        shownWindows.remove(window);
+        removeView(window.getAnimatedView());
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        if(event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            // Dismissing a toast removes it from the list, so walk it backwards.
+            for (int i = shownWindows.size() - 1; i >= 0; i--) {
+                if(i < shownWindows.size())
+                    shownWindows.get(i).onOutsideTouch(event);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        if(changed)
+            updateSystemWindowPadding();
+        super.onLayout(changed, left, top, right, bottom);
+    }
+
+    /**
+     * Keeps the toasts out of the status and navigation bars, where a dialog
+     * window is never placed either. The container fills the decor view, so
+     * the insets of the decor view are its own.
+     */
+    private void updateSystemWindowPadding() {
+        Rect insets = ToastGeometry.obtain(activity).getInsets();
+        if(insets.top != getPaddingTop() || insets.bottom != getPaddingBottom())
+            setPadding(0, insets.top, 0, insets.bottom);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.MessageQueue;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Does the work of the first toast of an activity once the main thread is idle:
+ * loads the classes, inflates a window into the {@link ToastWindowPool}, lays its
+ * text out, which loads the fonts, and reads the {@link ToastGeometry}.
+ *
+ * @see FloatingToast#prewarm(Activity, FloatingToast.OnPrewarmedListener)
+ */
+final class ToastPrewarmer implements MessageQueue.IdleHandler {
+
+    private final WeakReference<Activity> activity;
+    private final int windowMode;
+    private final FloatingToast.OnPrewarmedListener listener;
+
+    ToastPrewarmer(Activity activity, int windowMode, FloatingToast.OnPrewarmedListener listener) {
+        this.activity = new WeakReference<>(activity);
+        this.windowMode = windowMode;
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        Activity activity = this.activity.get();
+        if(activity == null)
+            return false;
+
+        ToastLifecycleRegistry.getInstance(activity).removePrewarmer(activity, this);
+        if(activity.isFinishing() || ToastLifecycleRegistry.isDestroyed(activity))
+            return false;
+
+        long startNanos = System.nanoTime();
+        FloatingToastScheduler.getInstance();
+        ToastAnimationDriver.getInstance();
+        ToastGeometry.obtain(activity).getDisplayHeight();
+        ToastWindowPool.prewarm(activity, windowMode);
+        long durationNanos = System.nanoTime() - startNanos;
+
+        if(listener != null)
+            listener.onPrewarmed(activity, durationNanos);
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands toasts requested from any thread to the main thread.
+ * <p>
+ * Requests are pushed onto a lock-free stack by any number of threads, and the
+ * main thread takes the whole stack at once and shows the toasts in the order
+ * they were requested. Only the first request of a burst posts a message to the
+ * main looper; the following ones are taken along with it.
+ *
+ * @see FloatingToast#post(Activity, CharSequence, int, FloatingToastSpec)
+ */
+final class ToastRequestQueue {
+
+    private static final ToastRequestQueue instance = new ToastRequestQueue(new Handler(Looper.getMainLooper()));
+
+    private final Handler mainHandler;
+    private final AtomicReference<Request> head = new AtomicReference<>();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean(false);
+
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    ToastRequestQueue(Handler mainHandler) {
+        this.mainHandler = mainHandler;
+    }
+
+    static ToastRequestQueue getInstance() {
+        return instance;
+    }
+
+    /**
+     * May be called from any thread.
+     */
+    void offer(Request request) {
+        Request current;
+        do {
+            current = head.get();
+            request.next = current;
+        } while (!head.compareAndSet(current, request));
+
+        if(isDrainScheduled.compareAndSet(false, true))
+            mainHandler.post(drainTask);
+    }
+
+    /**
+     * Shows every request offered so far. Must be called from the main thread.
+     */
+    void drain() {
+        // Cleared first, so that a request offered during the drain schedules the next one.
+        isDrainScheduled.set(false);
+
+        // The stack holds the latest request first.
+        Request request = head.getAndSet(null);
+        Request reversed = null;
+        while (request != null) {
+            Request next = request.next;
+            request.next = reversed;
+            reversed = request;
+            request = next;
+        }
+
+        while (reversed != null) {
+            Request next = reversed.next;
+            reversed.next = null;
+            reversed.show();
+            reversed = next;
+        }
+    }
+
+    /**
+     * An immutable toast request. Holds its view or activity weakly, as it may wait
+     * for the main thread while they go away.
+     */
+    static final class Request {
+        private final WeakReference<View> view;
+        private final WeakReference<Activity> activity;
+        private final CharSequence text;
+        private final int duration;
+        private final FloatingToastSpec spec;
+        private Request next;
+
+        Request(View view, Activity activity, CharSequence text, int duration, FloatingToastSpec spec) {
+            this.view = view != null ? new WeakReference<>(view) : null;
+            this.activity = activity != null ? new WeakReference<>(activity) : null;
+            // Copied on the calling thread, which may change its text afterwards.
+            this.text = FloatingToast.copyText(text);
+            this.duration = duration;
+            this.spec = spec;
+        }
+
+        private void show() {
+            if(view != null) {
+                View view = this.view.get();
+                if(view != null)
+                    FloatingToast.makeToast(view, text, duration, spec).show();
+            } else {
+                Activity activity = this.activity.get();
+                if(activity != null && !activity.isFinishing())
+                    FloatingToast.makeToast(activity, text, duration, spec).show();
+            }
+        }
+    }
+}
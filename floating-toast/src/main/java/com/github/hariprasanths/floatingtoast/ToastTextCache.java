@@ -0,0 +1,150 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * LRU cache of toast messages whose text layout was measured ahead of time, keyed
+ * by text and {@link PrecomputedTextCompat.Params}. A cached message is set on all
+ * the text views of the layered renderer, which then skip measuring it.
+ * <p>
+ * Messages are precomputed off the main thread, either along with the text of a
+ * toast made from a {@link java.util.concurrent.Callable}, or on the executor set by
+ * {@link FloatingToast#setTextPrecomputeExecutor(Executor)} the first time a
+ * message is shown, for the next times.
+ * <p>
+ * Must only be used from the main thread.
+ */
+final class ToastTextCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 16;
+
+    private static final ToastTextCache instance = new ToastTextCache(DEFAULT_MAX_ENTRIES);
+
+    private final LinkedHashMap<Key, PrecomputedTextCompat> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashSet<Key> precomputing = new HashSet<>();
+    private final Key probe = new Key();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int maxEntries;
+    private Executor executor;
+    private int hitCount;
+    private int missCount;
+
+    ToastTextCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    static ToastTextCache getInstance() {
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    PrecomputedTextCompat get(String text, PrecomputedTextCompat.Params params) {
+        PrecomputedTextCompat precomputed = entries.get(probe.set(text, params));
+        probe.set(null, null);
+        if(precomputed != null)
+            hitCount++;
+        else
+            missCount++;
+        return precomputed;
+    }
+
+    void put(String text, PrecomputedTextCompat precomputed) {
+        if(!isEnabled())
+            return;
+
+        entries.put(new Key().set(text, precomputed.getParams()), precomputed);
+        Iterator<Map.Entry<Key, PrecomputedTextCompat>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Measures the text on the executor, if there is one, and caches the result.
+     */
+    void precompute(final String text, final PrecomputedTextCompat.Params params) {
+        if(executor == null || !isEnabled())
+            return;
+
+        final Key key = new Key().set(text, params);
+        if(!precomputing.add(key))
+            return;
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final PrecomputedTextCompat precomputed = PrecomputedTextCompat.create(text, params);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        precomputing.remove(key);
+                        put(text, precomputed);
+                    }
+                });
+            }
+        });
+    }
+
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    void setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        Iterator<Map.Entry<Key, PrecomputedTextCompat>> iterator = entries.entrySet().iterator();
+        while (entries.size() > this.maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    int getHitCount() {
+        return hitCount;
+    }
+
+    int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Text and layout params of a message. Lookups reuse a single probe key.
+     */
+    private static final class Key {
+        private String text;
+        private PrecomputedTextCompat.Params params;
+        private int hashCode;
+
+        Key set(String text, PrecomputedTextCompat.Params params) {
+            this.text = text;
+            this.params = params;
+            this.hashCode = text != null ? 31 * text.hashCode() + params.hashCode() : 0;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hashCode == key.hashCode && text.equals(key.text) && params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Resolves the text of a toast on an {@link Executor} and hands it back to the
+ * main thread, so that formatting the text does not cost main-thread time.
+ * <p>
+ * Must only be used from the main thread, except for the loads themselves.
+ *
+ * @see FloatingToast#makeToast(android.app.Activity, Callable, Executor, int, FloatingToastSpec)
+ */
+final class ToastTextLoader {
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_LOADING = 1;
+    private static final int STATE_LOADED = 2;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Callable<? extends CharSequence> source;
+    private final Executor executor;
+    private final Listener listener;
+    private int state = STATE_IDLE;
+    private Load load;
+
+    ToastTextLoader(Callable<? extends CharSequence> source, Executor executor, Listener listener) {
+        this.source = source;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts loading the text, unless it is loading or loaded already. A load the
+     * executor rejects fails right away.
+     *
+     * @param params If not null, the text layout is measured along with the text
+     *               and put in the {@link ToastTextCache}.
+     */
+    void start(PrecomputedTextCompat.Params params) {
+        if(state != STATE_IDLE)
+            return;
+
+        state = STATE_LOADING;
+        load = new Load(params);
+        try {
+            executor.execute(load);
+        } catch (RejectedExecutionException e) {
+            state = STATE_IDLE;
+            load = null;
+            listener.onTextLoadFailed(e);
+        }
+    }
+
+    /**
+     * Drops the running load, if any. The next {@link #start(PrecomputedTextCompat.Params)} loads the text again.
+     */
+    void cancel() {
+        if(state == STATE_LOADING) {
+            state = STATE_IDLE;
+            load = null;
+        }
+    }
+
+    boolean isLoading() {
+        return state == STATE_LOADING;
+    }
+
+    boolean isLoaded() {
+        return state == STATE_LOADED;
+    }
+
+    private void deliver(Load load) {
+        if(load != this.load)
+            return;
+
+        this.load = null;
+        if(load.error != null) {
+            state = STATE_IDLE;
+            // Not thrown: it would crash the app from a message the caller can not catch.
+            listener.onTextLoadFailed(load.error);
+            return;
+        }
+        state = STATE_LOADED;
+        if(load.precomputed != null)
+            ToastTextCache.getInstance().put((String) load.text, load.precomputed);
+        listener.onTextLoaded(load.text);
+    }
+
+    interface Listener {
+        void onTextLoaded(CharSequence text);
+
+        /**
+         * @param error What the source threw, or why the executor rejected the load.
+         */
+        void onTextLoadFailed(Throwable error);
+    }
+
+    /**
+     * A single run of the source. Its results are read on the main thread after
+     * the post, which orders them after the writes of the executor thread.
+     */
+    private final class Load implements Runnable {
+        final PrecomputedTextCompat.Params params;
+        CharSequence text;
+        PrecomputedTextCompat precomputed;
+        Throwable error;
+
+        Load(PrecomputedTextCompat.Params params) {
+            this.params = params;
+        }
+
+        @Override
+        public void run() {
+            try {
+                text = source.call();
+                // Only plain text is cached, see ToastTextCache.
+                if(params != null && text instanceof String)
+                    precomputed = PrecomputedTextCompat.create(text, params);
+            } catch (Throwable e) {
+                // Errors too, or the toast would wait for the text forever.
+                error = e;
+            }
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(Load.this);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Trace sections around the work of the toasts, for systrace and Perfetto.
+ * Disabled unless {@link FloatingToast#setTracingEnabled(boolean)} is called.
+ * <p>
+ * Synchronous sections must be ended on the thread they began on, in reverse
+ * order. Async sections span the lifetime and animation phases of a toast,
+ * which is identified by its cookie. Must only be used from the main thread.
+ */
+final class ToastTrace {
+
+    static final String MAKE = "FloatingToast#makeToast";
+    static final String SHOW = "FloatingToast#show";
+    static final String APPLY_SPEC = "FloatingToast#applySpec";
+    static final String START_ANIMATION = "FloatingToast#startAnimation";
+    static final String DO_FRAME = "FloatingToast#doFrame";
+    static final String DISMISS = "FloatingToast#dismiss";
+
+    static final String LIFETIME = "FloatingToast";
+    static final String PHASE_FLOAT = "FloatingToast:float";
+    static final String PHASE_STAND_BY = "FloatingToast:standBy";
+    static final String PHASE_FADE = "FloatingToast:fade";
+
+    /**
+     * Receives the trace events. Replaced by a fake in tests.
+     */
+    interface Tracer {
+        void beginSection(String name);
+
+        void endSection();
+
+        void beginAsyncSection(String name, int cookie);
+
+        void endAsyncSection(String name, int cookie);
+    }
+
+    private static Tracer tracer;
+    private static int nextCookie = 1;
+
+    private ToastTrace() {
+    }
+
+    /**
+     * @param newTracer Null disables tracing. Should not be changed while toasts are shown.
+     */
+    static void setTracer(Tracer newTracer) {
+        tracer = newTracer;
+    }
+
+    static Tracer getSystemTracer() {
+        return SystemTracer.INSTANCE;
+    }
+
+    static int newCookie() {
+        return nextCookie++;
+    }
+
+    static void beginSection(String name) {
+        if(tracer != null)
+            tracer.beginSection(name);
+    }
+
+    static void endSection() {
+        if(tracer != null)
+            tracer.endSection();
+    }
+
+    static void beginAsyncSection(String name, int cookie) {
+        if(tracer != null)
+            tracer.beginAsyncSection(name, cookie);
+    }
+
+    static void endAsyncSection(String name, int cookie) {
+        if(tracer != null)
+            tracer.endAsyncSection(name, cookie);
+    }
+
+    /**
+     * {@link Trace}: sections require API 18, async sections API 29.
+     * Events are dropped on older versions.
+     */
+    private static final class SystemTracer implements Tracer {
+        static final SystemTracer INSTANCE = new SystemTracer();
+
+        @Override
+        public void beginSection(String name) {
+            if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2)
+                Trace.beginSection(name);
+        }
+
+        @Override
+        public void endSection() {
+            if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2)
+                Trace.endSection();
+        }
+
+        @Override
+        public void beginAsyncSection(String name, int cookie) {
+            if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+                Trace.beginAsyncSection(name, cookie);
+        }
+
+        @Override
+        public void endAsyncSection(String name, int cookie) {
+            if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+                Trace.endAsyncSection(name, cookie);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.view.View;
+
+/**
+ * Where a toast is drawn. Windows are handed out by {@link ToastWindowPool}
+ * and are bound to a single {@link FloatingToast} at a time.
+ *
+ * @see ToastDialog
+ * @see OverlayToastWindow
+ */
+interface ToastWindow {
+
+    /**
+     * @return {@link FloatingToast#WINDOW_MODE_DIALOG} or {@link FloatingToast#WINDOW_MODE_OVERLAY}
+     */
+    int getWindowMode();
+
+    Activity getActivity();
+
+    ToastContent getContent();
+
+    /**
+     * @return The view the float and fade animation is applied to.
+     */
+    View getAnimatedView();
+
+    void bind(FloatingToast owner);
+
+    boolean isBoundTo(FloatingToast toast);
+
+    /**
+     * Keeps the window bound to its toast after dismissal, for toasts that
+     * are shown again and again (e.g. on every touch of a view).
+     */
+    void setRecyclable(boolean recyclable);
+
+    /**
+     * @return The spec the content was last styled with, null while it is unstyled.
+     */
+    FloatingToastSpec getAppliedSpec();
+
+    void setAppliedSpec(FloatingToastSpec spec);
+
+    /**
+     * Positions the window with the semantics of {@link android.view.WindowManager.LayoutParams}:
+     * the offsets are applied in the direction of the gravity.
+     */
+    void setPosition(int gravity, int xOffset, int yOffset);
+
+    void show();
+
+    void dismiss();
+
+    boolean isShowing();
+
+    /**
+     * Restores the window to the state it had right after inflation, except for its
+     * position and the style of {@link #getAppliedSpec()}, which the next toast with
+     * the same spec reuses as is.
+     */
+    void reset();
+}
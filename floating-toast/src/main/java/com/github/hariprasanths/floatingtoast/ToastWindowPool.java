@@ -0,0 +1,120 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Per-activity pool of pre-inflated {@link ToastWindow}s, so that
+ * {@code FloatingToast.makeToast(...)} can take a ready window instead of
+ * inflating a new one.
+ * <p>
+ * Pooled windows hold their activity, so every pool is evicted as soon as its
+ * activity is destroyed. Must only be used from the main thread.
+ */
+final class ToastWindowPool {
+
+    static final int DEFAULT_MAX_SIZE = 3;
+
+    private static final Map<Activity, ArrayDeque<ToastWindow>> pools = new HashMap<>();
+    private static int maxSize = DEFAULT_MAX_SIZE;
+
+    private ToastWindowPool() {
+    }
+
+    /**
+     * @param windowMode {@link FloatingToast#WINDOW_MODE_DIALOG} or {@link FloatingToast#WINDOW_MODE_OVERLAY}
+     */
+    static ToastWindow acquire(Activity activity, int windowMode) {
+        ArrayDeque<ToastWindow> pool = pools.get(activity);
+        if(pool != null) {
+            Iterator<ToastWindow> iterator = pool.iterator();
+            while (iterator.hasNext()) {
+                ToastWindow window = iterator.next();
+                if(window.getWindowMode() == windowMode) {
+                    iterator.remove();
+                    ToastMetrics.getInstance().onPoolAcquired(true);
+                    return window;
+                }
+            }
+        }
+
+        ToastMetrics.getInstance().onPoolAcquired(false);
+        return create(activity, windowMode);
+    }
+
+    /**
+     * Inflates an idle window of the given mode ahead of the first toast, unless
+     * there is one already, and lays its text out once.
+     */
+    static void prewarm(Activity activity, int windowMode) {
+        if(maxSize == 0 || activity.isFinishing() || ToastLifecycleRegistry.isDestroyed(activity))
+            return;
+
+        ArrayDeque<ToastWindow> pool = pools.get(activity);
+        if(pool != null) {
+            for (ToastWindow window : pool) {
+                if(window.getWindowMode() == windowMode)
+                    return;
+            }
+        }
+
+        ToastWindow window = create(activity, windowMode);
+        window.getContent().measure();
+        release(window);
+    }
+
+    private static ToastWindow create(Activity activity, int windowMode) {
+        if(windowMode == FloatingToast.WINDOW_MODE_OVERLAY)
+            return new OverlayToastWindow(activity);
+        return new ToastDialog(activity);
+    }
+
+    static void release(ToastWindow window) {
+        Activity activity = window.getActivity();
+        // A window released after its activity was evicted must not pool it again.
+        if(maxSize == 0 || activity.isFinishing() || ToastLifecycleRegistry.isDestroyed(activity))
+            return;
+
+        ArrayDeque<ToastWindow> pool = pools.get(activity);
+        if(pool == null) {
+            // Evicts the pool once the activity is destroyed.
+            ToastLifecycleRegistry.getInstance(activity);
+            pool = new ArrayDeque<>(maxSize);
+            pools.put(activity, pool);
+        }
+
+        if(pool.size() < maxSize && !pool.contains(window)) {
+            window.reset();
+            pool.offer(window);
+        }
+    }
+
+    static void setMaxSize(int size) {
+        maxSize = Math.max(0, size);
+        Iterator<ArrayDeque<ToastWindow>> iterator = pools.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<ToastWindow> pool = iterator.next();
+            while (pool.size() > maxSize)
+                pool.poll();
+            if(pool.isEmpty())
+                iterator.remove();
+        }
+    }
+
+    static int getMaxSize() {
+        return maxSize;
+    }
+
+    static int size(Activity activity) {
+        ArrayDeque<ToastWindow> pool = pools.get(activity);
+        return pool != null ? pool.size() : 0;
+    }
+
+    static void evict(Activity activity) {
+        pools.remove(activity);
+    }
+}
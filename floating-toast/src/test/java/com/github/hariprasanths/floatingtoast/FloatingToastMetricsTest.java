@@ -0,0 +1,110 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FloatingToastMetricsTest {
+
+    private ActivityController<Activity> controller;
+    private Activity activity;
+    private RecordingMetrics metrics;
+
+    @Before
+    public void setUp() {
+        controller = Robolectric.buildActivity(Activity.class).setup();
+        activity = controller.get();
+        metrics = new RecordingMetrics();
+        FloatingToast.setMetricsListener(metrics);
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setMetricsListener(null);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void phasesAreReportedInOrder() {
+        FloatingToastStats before = FloatingToast.getToastStats();
+        FloatingToast.makeToast(activity, "phases", FloatingToast.LENGTH_QUICK).show();
+        idle();
+
+        assertEquals(1, metrics.calls);
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_TIMEOUT, metrics.dismissReason);
+        assertTrue(metrics.madeNanos > 0);
+        assertTrue(metrics.madeNanos <= metrics.shownNanos);
+        assertTrue(metrics.shownNanos <= metrics.firstFrameNanos);
+        assertTrue(metrics.firstFrameNanos <= metrics.fadeStartNanos);
+        assertTrue(metrics.fadeStartNanos <= metrics.dismissedNanos);
+
+        FloatingToastStats after = FloatingToast.getToastStats();
+        assertEquals(before.getShownCount() + 1, after.getShownCount());
+        assertEquals(before.getDismissedEarlyCount(), after.getDismissedEarlyCount());
+    }
+
+    @Test
+    public void pausedActivityCountsAsDismissedEarly() {
+        FloatingToastStats before = FloatingToast.getToastStats();
+        FloatingToast.makeToast(activity, "paused", FloatingToast.LENGTH_LONG).show();
+
+        controller.pause();
+
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_ACTIVITY_PAUSED, metrics.dismissReason);
+        assertEquals(0, metrics.fadeStartNanos);
+        assertEquals(before.getDismissedEarlyCount() + 1, FloatingToast.getToastStats().getDismissedEarlyCount());
+    }
+
+    @Test
+    public void pooledWindowsCountAsHits() {
+        FloatingToastStats before = FloatingToast.getToastStats();
+        for (int i = 0; i < 3; i++) {
+            FloatingToast.makeToast(activity, "pooled", FloatingToast.LENGTH_QUICK).show();
+            idle();
+        }
+
+        FloatingToastStats after = FloatingToast.getToastStats();
+        assertEquals(before.getPoolMissCount() + 1, after.getPoolMissCount());
+        assertEquals(before.getPoolHitCount() + 2, after.getPoolHitCount());
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static final class RecordingMetrics implements FloatingToastMetrics {
+        int calls;
+        long madeNanos;
+        long shownNanos;
+        long firstFrameNanos;
+        long fadeStartNanos;
+        long dismissedNanos;
+        int dismissReason = -1;
+
+        @Override
+        public void onToastDismissed(FloatingToast toast, long madeNanos, long shownNanos, long firstFrameNanos,
+                                     long fadeStartNanos, long dismissedNanos, int dismissReason) {
+            calls++;
+            this.madeNanos = madeNanos;
+            this.shownNanos = shownNanos;
+            this.firstFrameNanos = firstFrameNanos;
+            this.fadeStartNanos = fadeStartNanos;
+            this.dismissedNanos = dismissedNanos;
+            this.dismissReason = dismissReason;
+        }
+    }
+}
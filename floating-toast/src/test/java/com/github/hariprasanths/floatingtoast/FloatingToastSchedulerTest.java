@@ -0,0 +1,294 @@
+package com.github.hariprasanths.floatingtoast;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FloatingToastSchedulerTest {
+
+    private FakeClock clock;
+    private FloatingToastScheduler scheduler;
+    private List<String> shown;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        scheduler = new FloatingToastScheduler(clock, clock);
+        shown = new ArrayList<>();
+    }
+
+    @Test
+    public void showsEverythingRightAwayWithoutLimits() {
+        for (int i = 0; i < 30; i++)
+            scheduler.enqueue(new FakeEntry("tap " + i));
+
+        assertEquals(30, shown.size());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void queuedToastsWaitForAFreeWindow() {
+        scheduler.setMaxConcurrentToasts(2);
+        FakeEntry first = new FakeEntry("a");
+        scheduler.enqueue(first);
+        scheduler.enqueue(new FakeEntry("b"));
+        scheduler.enqueue(new FakeEntry("c"));
+
+        assertEquals(2, shown.size());
+        assertEquals(1, scheduler.getPendingCount());
+
+        first.finish();
+        assertEquals(3, shown.size());
+        assertEquals("c", shown.get(2));
+    }
+
+    @Test
+    public void rateLimitDefersToastsToTheNextSecond() {
+        scheduler.setMaxToastsPerSecond(3);
+        for (int i = 0; i < 5; i++)
+            scheduler.enqueue(new FakeEntry("tap " + i));
+        assertEquals(3, shown.size());
+
+        clock.advance(999);
+        assertEquals(3, shown.size());
+
+        clock.advance(1);
+        assertEquals(5, shown.size());
+    }
+
+    @Test
+    public void replaceLatestKeepsOnlyTheNewestWaitingToast() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_REPLACE_LATEST).setMaxToastsPerSecond(1);
+        scheduler.enqueue(new FakeEntry("a"));
+        FakeEntry b = new FakeEntry("b");
+        scheduler.enqueue(b);
+        scheduler.enqueue(new FakeEntry("c"));
+
+        assertTrue(b.isDiscarded);
+        assertEquals(1, scheduler.getPendingCount());
+
+        clock.advance(1000);
+        assertEquals("c", shown.get(1));
+    }
+
+    @Test
+    public void replaceLatestDismissesTheNewestVisibleToastWhenFull() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_REPLACE_LATEST).setMaxConcurrentToasts(1);
+        FakeEntry a = new FakeEntry("a");
+        scheduler.enqueue(a);
+        scheduler.enqueue(new FakeEntry("b"));
+
+        assertTrue(a.isDismissed);
+        assertEquals("b", shown.get(1));
+        assertEquals(1, scheduler.getActiveCount());
+    }
+
+    @Test
+    public void coalescesIdenticalTextIntoACounter() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_COALESCE);
+        FakeEntry first = new FakeEntry("Added to cart");
+        scheduler.enqueue(first);
+        for (int i = 0; i < 29; i++)
+            scheduler.enqueue(new FakeEntry("Added to cart"));
+
+        assertEquals(1, shown.size());
+        assertEquals(30, first.lastCount);
+    }
+
+    @Test
+    public void coalescesIntoWaitingToasts() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_COALESCE).setMaxConcurrentToasts(1);
+        FakeEntry first = new FakeEntry("a");
+        scheduler.enqueue(first);
+        FakeEntry waiting = new FakeEntry("b");
+        scheduler.enqueue(waiting);
+        scheduler.enqueue(new FakeEntry("b"));
+
+        first.finish();
+        assertEquals(2, waiting.lastCount);
+    }
+
+    @Test
+    public void goneToastsDoNotHoldWindows() {
+        scheduler.setMaxConcurrentToasts(1);
+        FakeEntry first = new FakeEntry("a");
+        scheduler.enqueue(first);
+        first.isAlive = false;
+
+        scheduler.enqueue(new FakeEntry("b"));
+        assertEquals(2, shown.size());
+        assertFalse(first.isDismissed);
+    }
+
+    @Test
+    public void pruneDiscardsDeadWaitingToasts() {
+        scheduler.setMaxConcurrentToasts(1);
+        FakeEntry shownEntry = new FakeEntry("a");
+        FakeEntry dead = new FakeEntry("b");
+        FakeEntry waiting = new FakeEntry("c");
+        scheduler.enqueue(shownEntry);
+        scheduler.enqueue(dead);
+        scheduler.enqueue(waiting);
+
+        dead.isAlive = false;
+        scheduler.prune();
+        assertTrue(dead.isDiscarded);
+        assertEquals(1, scheduler.getPendingCount());
+
+        shownEntry.isAlive = false;
+        scheduler.prune();
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    @Test
+    public void deadToastIsNeverShown() {
+        scheduler.setMaxConcurrentToasts(1);
+        FakeEntry first = new FakeEntry("a");
+        FakeEntry dead = new FakeEntry("b");
+        scheduler.enqueue(first);
+        scheduler.enqueue(dead);
+        scheduler.enqueue(new FakeEntry("c"));
+
+        dead.isAlive = false;
+        first.finish();
+
+        assertTrue(dead.isDiscarded);
+        assertEquals("c", shown.get(1));
+    }
+
+    @Test
+    public void visibleToastShownAgainIsShownInPlace() {
+        scheduler.setMaxConcurrentToasts(1);
+        FakeEntry entry = new FakeEntry("a");
+        scheduler.enqueue(entry);
+        scheduler.enqueue(entry);
+
+        assertEquals(2, shown.size());
+        assertEquals(1, scheduler.getActiveCount());
+        assertEquals(0, scheduler.getPendingCount());
+
+        entry.finish();
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    @Test
+    public void visibleToastShownAgainPastTheRateLimitKeepsShowing() {
+        scheduler.setMaxToastsPerSecond(1);
+        FakeEntry entry = new FakeEntry("a");
+        scheduler.enqueue(entry);
+        scheduler.enqueue(entry);
+
+        assertEquals(1, shown.size());
+        assertEquals(0, scheduler.getPendingCount());
+        assertFalse(entry.isDiscarded);
+    }
+
+    @Test
+    public void waitingToastShownAgainKeepsItsPlace() {
+        scheduler.setMaxConcurrentToasts(1);
+        FakeEntry first = new FakeEntry("a");
+        FakeEntry waiting = new FakeEntry("b");
+        scheduler.enqueue(first);
+        scheduler.enqueue(waiting);
+        scheduler.enqueue(new FakeEntry("c"));
+        scheduler.enqueue(waiting);
+
+        assertEquals(2, scheduler.getPendingCount());
+        first.finish();
+        assertEquals("b", shown.get(1));
+    }
+
+    @Test
+    public void visibleToastShownAgainIsCoalescedWithoutBeingDiscarded() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_COALESCE);
+        FakeEntry entry = new FakeEntry("Added to cart");
+        scheduler.enqueue(entry);
+        scheduler.enqueue(entry);
+
+        assertEquals(1, shown.size());
+        assertEquals(2, entry.lastCount);
+        assertFalse(entry.isDiscarded);
+        assertEquals(1, scheduler.getActiveCount());
+    }
+
+    private class FakeEntry extends FloatingToastScheduler.Entry {
+        boolean isAlive = true;
+        boolean isDismissed = false;
+        boolean isDiscarded = false;
+        int lastCount;
+
+        FakeEntry(String key) {
+            super(key);
+        }
+
+        void finish() {
+            isAlive = false;
+            scheduler.onDismissed(this);
+        }
+
+        @Override
+        void show(int count) {
+            lastCount = count;
+            shown.add(key);
+        }
+
+        @Override
+        void updateCount(int count) {
+            lastCount = count;
+        }
+
+        @Override
+        void dismiss() {
+            isDismissed = true;
+            isAlive = false;
+        }
+
+        @Override
+        void discard() {
+            isDiscarded = true;
+        }
+
+        @Override
+        boolean isAlive() {
+            return isAlive;
+        }
+    }
+
+    private static class FakeClock implements FloatingToastScheduler.Clock, FloatingToastScheduler.Timer {
+        private long now = 1000;
+        private Runnable task;
+        private long taskTime;
+
+        void advance(long millis) {
+            now += millis;
+            if(task != null && taskTime <= now) {
+                Runnable runnable = task;
+                task = null;
+                runnable.run();
+            }
+        }
+
+        @Override
+        public long uptimeMillis() {
+            return now;
+        }
+
+        @Override
+        public void schedule(Runnable task, long uptimeMillis) {
+            this.task = task;
+            this.taskTime = uptimeMillis;
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            if(this.task == task)
+                this.task = null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.TextView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FloatingToastSpecTest {
+
+    private Activity activity;
+    private int layoutRequests;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        activity.getLayoutInflater().setFactory2(new LayoutInflater.Factory2() {
+            @Override
+            public View onCreateView(View parent, String name, Context context, AttributeSet attrs) {
+                return onCreateView(name, context, attrs);
+            }
+
+            @Override
+            public View onCreateView(String name, Context context, AttributeSet attrs) {
+                if("TextView".equals(name))
+                    return new CountingTextView(context, attrs);
+                return null;
+            }
+        });
+
+        // Inflates the pooled window up front, so that only applying the style is counted.
+        FloatingToast.makeToast(activity, "warm up", FloatingToast.LENGTH_QUICK).show();
+        idle();
+    }
+
+    @After
+    public void tearDown() {
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void settersDoNotTouchTheViews() {
+        layoutRequests = 0;
+        styled(FloatingToast.makeToast(activity, "styled", FloatingToast.LENGTH_QUICK));
+
+        assertEquals(0, layoutRequests);
+    }
+
+    @Test
+    public void styleIsAppliedOnceAtShow() {
+        layoutRequests = 0;
+        styled(FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK)).show();
+        int once = layoutRequests;
+        idle();
+
+        layoutRequests = 0;
+        FloatingToast toast = FloatingToast.makeToast(activity, "second", FloatingToast.LENGTH_QUICK);
+        for (int i = 0; i < 5; i++)
+            styled(toast);
+        toast.show();
+
+        assertEquals(once, layoutRequests);
+        // At most the text, the size and the typeface of each of the three text views.
+        assertTrue(once <= 9);
+    }
+
+    @Test
+    public void unchangedStyleIsTheSameSpec() {
+        FloatingToastSpec.Builder builder = new FloatingToastSpec.Builder(FloatingToast.WINDOW_MODE_DIALOG);
+        FloatingToastSpec spec = builder.setTextColor(Color.RED).build();
+
+        assertSame(spec, builder.build());
+        assertNotSame(spec, builder.setTextColor(Color.RED).build());
+    }
+
+    @Test
+    public void presetIsNotAppliedAgainToItsWindow() {
+        layoutRequests = 0;
+        FloatingToast.makeToast(activity, "warm up", FloatingToast.LENGTH_QUICK).show();
+        int unstyled = layoutRequests;
+        idle();
+
+        FloatingToastSpec preset = new FloatingToastSpec.Builder()
+                .setTextColor(Color.RED)
+                .setTextStyle(FloatingToast.STYLE_BOLD)
+                .setTextSizeInSp(18)
+                .build();
+        FloatingToast.makeToast(activity, "preset", FloatingToast.LENGTH_QUICK, preset).show();
+        idle();
+
+        layoutRequests = 0;
+        FloatingToast.makeToast(activity, "preset", FloatingToast.LENGTH_QUICK, preset).show();
+
+        assertEquals(unstyled, layoutRequests);
+    }
+
+    @Test
+    public void derivedValuesAreResolvedBySpec() {
+        FloatingToastSpec spec = new FloatingToastSpec.Builder()
+                .setGravity(FloatingToast.GRAVITY_MID_BOTTOM)
+                .setTextTypeface(Typeface.SERIF)
+                .setTextStyle(FloatingToast.STYLE_BOLD)
+                .setTextSizeInSp(18)
+                .build();
+        DisplayMetrics metrics = activity.getResources().getDisplayMetrics();
+
+        assertEquals(Gravity.BOTTOM | Gravity.CENTER, spec.windowGravity);
+        assertEquals(Typeface.BOLD, spec.styledTypeface.getStyle());
+        assertEquals(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 18, metrics),
+                spec.getTextSizeInPx(metrics), 0);
+        assertSame(spec, new FloatingToastSpec.Builder(spec).build());
+    }
+
+    private static FloatingToastStyle styled(FloatingToastStyle toast) {
+        return toast.setGravity(FloatingToast.GRAVITY_MID_TOP)
+                .setGravity(FloatingToast.GRAVITY_BOTTOM, 0, 120)
+                .setFadeOutDuration(FloatingToast.FADE_DURATION_LONG)
+                .setTextColor(Color.RED)
+                .setTextTypeface(Typeface.SERIF)
+                .setTextStyle(FloatingToast.STYLE_BOLD)
+                .setTextSizeInSp(18)
+                .setFloatDistance(FloatingToast.DISTANCE_LONG)
+                .setShadowLayer(4, 2, 2, Color.BLACK);
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private class CountingTextView extends TextView {
+
+        CountingTextView(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+
+        @Override
+        public void requestLayout() {
+            layoutRequests++;
+            super.requestLayout();
+        }
+    }
+}
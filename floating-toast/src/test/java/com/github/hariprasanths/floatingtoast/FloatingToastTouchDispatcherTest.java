@@ -0,0 +1,117 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.widget.LinearLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowDialog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FloatingToastTouchDispatcherTest {
+
+    private static final int CELL_SIZE = 100;
+
+    private Activity activity;
+    private LinearLayout parent;
+    private FloatingToastTouchDispatcher dispatcher;
+    private final List<View> tappedChildren = new ArrayList<>();
+    private int touchSlop;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        parent = new LinearLayout(activity);
+        for (int i = 0; i < 3; i++)
+            parent.addView(new View(activity), new LinearLayout.LayoutParams(CELL_SIZE, CELL_SIZE));
+        activity.setContentView(parent);
+        parent.measure(View.MeasureSpec.makeMeasureSpec(3 * CELL_SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(CELL_SIZE, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 3 * CELL_SIZE, CELL_SIZE);
+        touchSlop = ViewConfiguration.get(activity).getScaledTouchSlop();
+
+        dispatcher = new FloatingToastTouchDispatcher(parent, new FloatingToastTouchDispatcher.ToastFactory() {
+            @Override
+            public FloatingToast makeToast(View child) {
+                tappedChildren.add(child);
+                return FloatingToast.makeToast(child, "cell", FloatingToast.LENGTH_QUICK);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void toastIsOnlyMadeWhenTheTapEnds() {
+        long now = SystemClock.uptimeMillis();
+        dispatch(now, MotionEvent.ACTION_DOWN, 150, 50);
+        dispatch(now, MotionEvent.ACTION_MOVE, 151, 50);
+        assertTrue(tappedChildren.isEmpty());
+
+        dispatch(now, MotionEvent.ACTION_UP, 151, 50);
+
+        assertEquals(1, tappedChildren.size());
+        assertSame(parent.getChildAt(1), tappedChildren.get(0));
+        assertTrue(ShadowDialog.getLatestDialog().isShowing());
+    }
+
+    @Test
+    public void dragPastTheTouchSlopMakesNoToast() {
+        long now = SystemClock.uptimeMillis();
+        dispatch(now, MotionEvent.ACTION_DOWN, 150, 50);
+        dispatch(now, MotionEvent.ACTION_MOVE, 150 + touchSlop * 2, 50);
+        dispatch(now, MotionEvent.ACTION_UP, 150, 50);
+
+        assertTrue(tappedChildren.isEmpty());
+        assertNull(ShadowDialog.getLatestDialog());
+    }
+
+    @Test
+    public void childListenersKeepWorking() {
+        final int[] childTouches = new int[1];
+        parent.getChildAt(0).setOnTouchListener(new View.OnTouchListener() {
+            @Override
+            public boolean onTouch(View v, MotionEvent event) {
+                childTouches[0]++;
+                return true;
+            }
+        });
+
+        long now = SystemClock.uptimeMillis();
+        dispatch(now, MotionEvent.ACTION_DOWN, 50, 50);
+        dispatch(now, MotionEvent.ACTION_UP, 50, 50);
+
+        assertEquals(2, childTouches[0]);
+        assertSame(parent.getChildAt(0), tappedChildren.get(0));
+    }
+
+    /**
+     * Delivers the event to the parent and to the dispatcher, as an item touch
+     * listener of a RecyclerView would.
+     */
+    private void dispatch(long downTime, int action, float x, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, x, y, 0);
+        dispatcher.onTouchEvent(event);
+        parent.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FloatingToastViewTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 400;
+    private static final String TEXT = "Added to cart";
+
+    private ViewGroup root;
+    private int textMeasures;
+    private int textViewDraws;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        LayoutInflater inflater = LayoutInflater.from(activity).cloneInContext(activity);
+        inflater.setFactory2(new CountingViewFactory());
+        root = (ViewGroup) inflater.inflate(R.layout.layout_toast, null);
+        for (int id : new int[] { R.id.messageTextView, R.id.blurViewRight, R.id.blurViewLeft })
+            ((TextView) root.findViewById(id)).setText(TEXT);
+        ((FloatingToastView) root.findViewById(R.id.toastView)).setText(TEXT);
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setBlurCacheSize(BlurCache.DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    @Test
+    public void singlePassMeasuresAndDrawsTheTextOnceForTheSameTextPasses() {
+        FloatingToast.setBlurCacheSize(0);
+        CountingCanvas layered = draw();
+        int layeredMeasures = textMeasures;
+        int layeredViewDraws = textViewDraws;
+
+        useSinglePass();
+        textMeasures = 0;
+        textViewDraws = 0;
+        CountingCanvas singlePass = draw();
+
+        // The same three glyph passes reach the canvas...
+        assertEquals(3, layered.textDraws);
+        assertEquals(3, singlePass.textDraws);
+        // ...from one view measured and drawn instead of three.
+        assertEquals(3, layeredViewDraws);
+        assertEquals(1, textViewDraws);
+        assertTrue(textMeasures > 0);
+        assertEquals(3 * textMeasures, layeredMeasures);
+    }
+
+    @Test
+    public void disablingBlurLeavesOnlyTheMainPass() {
+        useSinglePass().setBlurEnabled(false);
+
+        assertEquals(1, draw().textDraws);
+    }
+
+    @Test
+    public void cachedHaloReplacesBlurPassesAndIsSharedAcrossViews() {
+        useSinglePass();
+        BlurCacheStats before = FloatingToast.getBlurCacheStats();
+
+        CountingCanvas first = draw();
+        assertEquals(1, first.textDraws);
+        assertEquals(1, first.bitmapDraws);
+
+        FloatingToastView other = new FloatingToastView(root.getContext());
+        other.setText(TEXT);
+        root.addView(other);
+        root.removeView(root.findViewById(R.id.toastView));
+        draw();
+        draw();
+
+        BlurCacheStats after = FloatingToast.getBlurCacheStats();
+        assertEquals(1, after.getMissCount() - before.getMissCount());
+        assertEquals(1, after.getHitCount() - before.getHitCount());
+    }
+
+    private FloatingToastView useSinglePass() {
+        root.findViewById(R.id.messageTextView).setVisibility(View.GONE);
+        root.findViewById(R.id.blurViewRight).setVisibility(View.GONE);
+        root.findViewById(R.id.blurViewLeft).setVisibility(View.GONE);
+        FloatingToastView toastView = root.findViewById(R.id.toastView);
+        toastView.setVisibility(View.VISIBLE);
+        return toastView;
+    }
+
+    private CountingCanvas draw() {
+        root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.AT_MOST));
+        root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+        CountingCanvas canvas = new CountingCanvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        root.draw(canvas);
+        return canvas;
+    }
+
+    /**
+     * Inflates the text views of the layout as views that count their measure and draw passes.
+     */
+    private class CountingViewFactory implements LayoutInflater.Factory2 {
+        @Override
+        public View onCreateView(View parent, String name, Context context, AttributeSet attrs) {
+            if(name.equals("TextView"))
+                return new CountingTextView(context, attrs);
+            if(name.equals(FloatingToastView.class.getName()))
+                return new CountingToastView(context, attrs);
+            return null;
+        }
+
+        @Override
+        public View onCreateView(String name, Context context, AttributeSet attrs) {
+            return onCreateView(null, name, context, attrs);
+        }
+    }
+
+    private class CountingTextView extends TextView {
+        CountingTextView(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            textMeasures++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            textViewDraws++;
+            super.onDraw(canvas);
+        }
+    }
+
+    private class CountingToastView extends FloatingToastView {
+        CountingToastView(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            textMeasures++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            textViewDraws++;
+            super.onDraw(canvas);
+        }
+    }
+
+    private static class CountingCanvas extends Canvas {
+        int textDraws;
+        int bitmapDraws;
+
+        CountingCanvas(Bitmap bitmap) {
+            super(bitmap);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            bitmapDraws++;
+        }
+
+        @Override
+        public boolean getClipBounds(Rect bounds) {
+            bounds.set(0, 0, WIDTH, HEIGHT);
+            return true;
+        }
+
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+            textDraws++;
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            textDraws++;
+        }
+
+        @Override
+        public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+            textDraws++;
+        }
+
+        @Override
+        public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+            textDraws++;
+        }
+
+        @Override
+        public void drawTextRun(char[] text, int index, int count, int contextIndex, int contextCount,
+                                float x, float y, boolean isRtl, Paint paint) {
+            textDraws++;
+        }
+
+        @Override
+        public void drawTextRun(CharSequence text, int start, int end, int contextStart, int contextEnd,
+                                float x, float y, boolean isRtl, Paint paint) {
+            textDraws++;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowDialog;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class OverlayToastWindowTest {
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void overlayToastAddsNoDialog() {
+        FloatingToast.makeToast(activity, "overlay", FloatingToast.LENGTH_QUICK).show();
+
+        assertNull(ShadowDialog.getLatestDialog());
+        assertEquals(1, ToastOverlayContainer.obtain(activity).getChildCount());
+
+        idle();
+        assertEquals(0, ToastOverlayContainer.obtain(activity).getChildCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void containerIsAddedOncePerActivity() {
+        ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+        int children = decorView.getChildCount();
+
+        for (int i = 0; i < 5; i++)
+            FloatingToast.makeToast(activity, "toast " + i, FloatingToast.LENGTH_QUICK).show();
+
+        assertEquals(children + 1, decorView.getChildCount());
+        assertEquals(5, ToastOverlayContainer.obtain(activity).getChildCount());
+    }
+
+    @Test
+    public void gravityIsAppliedToTheOverlay() {
+        FloatingToast.makeToast(activity, "bottom", FloatingToast.LENGTH_QUICK)
+                .setGravity(Gravity.BOTTOM, 0, 120)
+                .show();
+
+        FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams)
+                ToastOverlayContainer.obtain(activity).getChildAt(0).getLayoutParams();
+        assertEquals(Gravity.BOTTOM, layoutParams.gravity);
+        assertEquals(120, layoutParams.bottomMargin);
+        assertEquals(0, layoutParams.topMargin);
+    }
+
+    @Test
+    public void outsideTouchDismissesActivityToastWithoutConsumingIt() {
+        FloatingToast.makeToast(activity, "touch", FloatingToast.LENGTH_LONG).show();
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        assertEquals(1, container.getChildCount());
+
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 10, 10, 0);
+        assertFalse(container.dispatchTouchEvent(down));
+        down.recycle();
+
+        assertEquals(0, container.getChildCount());
+    }
+
+    @Test
+    public void touchingTheAnchorDismissesAViewToast() {
+        View anchor = addAnchor();
+        FloatingToast.makeToast(anchor, "anchored", FloatingToast.LENGTH_LONG).show();
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        Rect anchorRect = new Rect();
+        assertTrue(anchor.getGlobalVisibleRect(anchorRect));
+
+        assertFalse(touchDown(container, anchorRect.right + 10, anchorRect.bottom + 10));
+        assertEquals(1, container.getChildCount());
+
+        assertFalse(touchDown(container, anchorRect.centerX(), anchorRect.centerY()));
+        assertEquals(0, container.getChildCount());
+    }
+
+    @Test
+    public void tapIsPlacedAtTheTouchPosition() {
+        View anchor = addAnchor();
+        FloatingToast.makeToast(anchor, "tap", FloatingToast.LENGTH_QUICK).showAtTouchPosition(anchor);
+
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 100, 150, 0);
+        MotionEvent up = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, 100, 150, 0);
+        anchor.dispatchTouchEvent(down);
+        anchor.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+
+        assertPlacedAt(150);
+    }
+
+    @Test
+    public void rawPositionIsPlacedAtTheTouchPosition() {
+        FloatingToast.makeToast(activity, "raw", FloatingToast.LENGTH_QUICK).showAtRawPosition(50, 300);
+
+        assertPlacedAt(300);
+    }
+
+    /**
+     * Touch offsets start at the visible display frame, which the container pads
+     * its toasts into, so the toast lands at the touched height on screen.
+     */
+    private void assertPlacedAt(int rawY) {
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        assertEquals(1, container.getChildCount());
+        FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) container.getChildAt(0).getLayoutParams();
+        assertEquals(Gravity.TOP | Gravity.LEFT, layoutParams.gravity);
+        assertEquals(0, layoutParams.bottomMargin);
+        assertEquals(ToastGeometry.obtain(activity).getInsets().top, container.getPaddingTop());
+        int[] containerLocation = new int[2];
+        container.getLocationOnScreen(containerLocation);
+        assertEquals(rawY, containerLocation[1] + container.getPaddingTop() + layoutParams.topMargin);
+    }
+
+    private View addAnchor() {
+        View anchor = new View(activity);
+        activity.setContentView(anchor, new FrameLayout.LayoutParams(200, 200));
+        ShadowLooper.idleMainLooper();
+        anchor.layout(0, 0, 200, 200);
+        return anchor;
+    }
+
+    private static boolean touchDown(ViewGroup container, float rawX, float rawY) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, rawX, rawY, 0);
+        boolean isConsumed = container.dispatchTouchEvent(down);
+        down.recycle();
+        return isConsumed;
+    }
+
+    @Test
+    public void windowModeCanBeChangedBeforeShowing() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        FloatingToast.makeToast(activity, "switched", FloatingToast.LENGTH_QUICK)
+                .setTextColor(0xff00ff00)
+                .setWindowMode(FloatingToast.WINDOW_MODE_OVERLAY)
+                .show();
+
+        assertNull(ShadowDialog.getLatestDialog());
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        assertEquals(1, container.getChildCount());
+        ToastContent content = new ToastContent(container.getChildAt(0));
+        assertEquals("switched", content.messageTextView.getText().toString());
+        assertEquals(0xff00ff00, content.messageTextView.getCurrentTextColor());
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScheduledToastTest {
+
+    private Activity activity;
+    private FloatingToastScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        scheduler = FloatingToastScheduler.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.clearPending();
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_QUEUE)
+                .setMaxConcurrentToasts(FloatingToastScheduler.UNLIMITED)
+                .setMaxToastsPerSecond(FloatingToastScheduler.UNLIMITED);
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void toastShownAgainIsCoalescedIntoItsOwnWindow() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_COALESCE);
+        FloatingToast toast = FloatingToast.makeToast(activity, "Added to cart", FloatingToast.LENGTH_QUICK);
+        ToastHandle handle = toast.show();
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        View window = container.getChildAt(0);
+
+        toast.show();
+
+        assertTrue(handle.isShowing());
+        assertEquals(1, container.getChildCount());
+        assertSame(window, container.getChildAt(0));
+        assertEquals("Added to cart \u00d72", new ToastContent(window).messageTextView.getText().toString());
+        assertEquals(0, ToastWindowPool.size(activity));
+
+        idle();
+        assertEquals(0, container.getChildCount());
+        assertEquals(0, scheduler.getActiveCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void coalescedToastLeavesTheShownWindowAlone() {
+        scheduler.setPolicy(FloatingToastScheduler.POLICY_COALESCE);
+        ToastHandle shown = FloatingToast.makeToast(activity, "Added to cart", FloatingToast.LENGTH_QUICK).show();
+        FloatingToast.makeToast(activity, "Added to cart", FloatingToast.LENGTH_QUICK).show();
+
+        assertTrue(shown.isShowing());
+        assertEquals(1, ToastOverlayContainer.obtain(activity).getChildCount());
+        assertEquals(0, ToastWindowPool.size(activity));
+
+        idle();
+        assertEquals(0, scheduler.getActiveCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void toastShownTwiceHoldsASingleSlot() {
+        scheduler.setMaxConcurrentToasts(1);
+        FloatingToast toast = FloatingToast.makeToast(activity, "twice", FloatingToast.LENGTH_QUICK);
+        toast.show();
+        toast.show();
+        assertEquals(0, scheduler.getPendingCount());
+
+        idle();
+        assertEquals(0, scheduler.getActiveCount());
+
+        ToastHandle next = FloatingToast.makeToast(activity, "next", FloatingToast.LENGTH_QUICK).show();
+        assertTrue(next.isShowing());
+    }
+
+    @Test
+    public void tapsAreLimitedByTheScheduler() {
+        scheduler.setMaxConcurrentToasts(1);
+        LinearLayout layout = new LinearLayout(activity);
+        View first = new View(activity);
+        View second = new View(activity);
+        layout.addView(first, new LinearLayout.LayoutParams(200, 200));
+        layout.addView(second, new LinearLayout.LayoutParams(200, 200));
+        activity.setContentView(layout);
+        first.layout(0, 0, 200, 200);
+        second.layout(200, 0, 400, 200);
+        FloatingToast.makeToast(first, "first", FloatingToast.LENGTH_QUICK).showAtTouchPosition(first);
+        FloatingToast.makeToast(second, "second", FloatingToast.LENGTH_QUICK).showAtTouchPosition(second);
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+
+        tap(first);
+        tap(second);
+        assertEquals(1, container.getChildCount());
+        assertEquals(1, scheduler.getPendingCount());
+
+        // Windows kept for the next tap still hand their slot back once dismissed.
+        idle();
+        assertEquals(0, container.getChildCount());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    @Test
+    public void canceledDialogToastFreesItsSlotRightAway() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        scheduler.setMaxConcurrentToasts(1);
+        ToastHandle canceled = FloatingToast.makeToast(activity, "canceled", FloatingToast.LENGTH_QUICK).show();
+
+        canceled.cancel();
+        ToastHandle next = FloatingToast.makeToast(activity, "next", FloatingToast.LENGTH_QUICK).show();
+
+        assertTrue(next.isShowing());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(1, scheduler.getActiveCount());
+
+        idle();
+        assertEquals(0, scheduler.getActiveCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    private void tap(View view) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 100, 100, 0);
+        MotionEvent up = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, 100, 100, 0);
+        view.dispatchTouchEvent(down);
+        view.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowDialog;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ShowAtTouchPositionTest {
+
+    private static final int MOVE_EVENTS = 10000;
+
+    private Activity activity;
+    private View anchor;
+    private int touchSlop;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        anchor = new View(activity);
+        activity.setContentView(anchor, new FrameLayout.LayoutParams(200, 200));
+        anchor.layout(0, 0, 200, 200);
+        touchSlop = ViewConfiguration.get(activity).getScaledTouchSlop();
+    }
+
+    @After
+    public void tearDown() {
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void tapWithinTheTouchSlopShowsTheToast() {
+        FloatingToast.makeToast(anchor, "tap", FloatingToast.LENGTH_QUICK).showAtTouchPosition(anchor);
+
+        tap(100, 100, 200 + touchSlop / 2f, 100);
+
+        assertTrue(ShadowDialog.getLatestDialog().isShowing());
+    }
+
+    @Test
+    public void movingPastTheTouchSlopCancelsTheTap() {
+        FloatingToast.makeToast(anchor, "tap", FloatingToast.LENGTH_QUICK).showAtTouchPosition(anchor);
+
+        tap(100, 100, 200 + touchSlop * 2, 100);
+
+        assertNull(ShadowDialog.getLatestDialog());
+    }
+
+    @Test
+    public void moveEventsDoNotAllocate() {
+        FloatingToast.makeToast(anchor, "move", FloatingToast.LENGTH_QUICK).showAtTouchPosition(anchor);
+
+        // Under Robolectric, reading a MotionEvent goes through a Java shadow, so the
+        // same reads from a listener that does nothing else are the baseline.
+        View baselineView = new View(activity);
+        baselineView.layout(0, 0, 200, 200);
+        baselineView.setOnTouchListener(new View.OnTouchListener() {
+            @Override
+            public boolean onTouch(View v, MotionEvent event) {
+                return event.getActionMasked() == MotionEvent.ACTION_MOVE
+                        && event.getX() < v.getWidth() && event.getY() < v.getHeight();
+            }
+        });
+
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 100, 100, 0);
+        MotionEvent move = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, 120, 110, 0);
+        anchor.dispatchTouchEvent(down);
+        baselineView.dispatchTouchEvent(down);
+
+        long baseline = allocatedBytes(baselineView, move);
+        long listener = allocatedBytes(anchor, move);
+        down.recycle();
+        move.recycle();
+
+        assertTrue("allocated " + listener + " bytes, baseline " + baseline, listener <= baseline);
+    }
+
+    private static long allocatedBytes(View view, MotionEvent move) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < MOVE_EVENTS; i++)
+            view.dispatchTouchEvent(move);
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MOVE_EVENTS; i++)
+            assertTrue(view.dispatchTouchEvent(move));
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private void tap(float downX, float downY, float moveX, float moveY) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, downX, downY, 0);
+        MotionEvent move = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, moveX, moveY, 0);
+        MotionEvent up = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, moveX, moveY, 0);
+        anchor.dispatchTouchEvent(down);
+        anchor.dispatchTouchEvent(move);
+        assertFalse(anchor.dispatchTouchEvent(up));
+        down.recycle();
+        move.recycle();
+        up.recycle();
+    }
+}
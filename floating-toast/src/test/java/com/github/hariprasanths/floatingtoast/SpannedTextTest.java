@@ -0,0 +1,71 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.graphics.Typeface;
+import android.graphics.drawable.ColorDrawable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ImageSpan;
+import android.text.style.StyleSpan;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpannedTextTest {
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void spansAreSharedByEveryLayer() {
+        SpannableStringBuilder text = new SpannableStringBuilder("  3 items added");
+        ColorDrawable icon = new ColorDrawable();
+        icon.setBounds(0, 0, 24, 24);
+        text.setSpan(new ImageSpan(icon), 0, 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        text.setSpan(new StyleSpan(Typeface.BOLD), 2, 3, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        FloatingToast.makeToast(activity, text, FloatingToast.LENGTH_LONG).show();
+        // Changing the caller's text does not change the toast.
+        text.clear();
+
+        ToastContent content = new ToastContent(ToastOverlayContainer.obtain(activity).getChildAt(0));
+        CharSequence shown = content.messageTextView.getText();
+        assertEquals("  3 items added", shown.toString());
+        assertEquals(1, ((Spanned) shown).getSpans(0, shown.length(), ImageSpan.class).length);
+        assertEquals(1, ((Spanned) shown).getSpans(0, shown.length(), StyleSpan.class).length);
+        assertSame(shown, content.blurViewRight.getText());
+        assertSame(shown, content.blurViewLeft.getText());
+    }
+
+    @Test
+    public void sameCharactersWithOtherSpansAreUpdated() {
+        ToastHandle handle = FloatingToast.makeToast(activity, "3 items added", FloatingToast.LENGTH_LONG).show();
+        SpannableStringBuilder bold = new SpannableStringBuilder("3 items added");
+        bold.setSpan(new StyleSpan(Typeface.BOLD), 0, 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        handle.updateText(bold);
+
+        ToastContent content = new ToastContent(ToastOverlayContainer.obtain(activity).getChildAt(0));
+        assertTrue(content.messageTextView.getText() instanceof Spanned);
+    }
+}
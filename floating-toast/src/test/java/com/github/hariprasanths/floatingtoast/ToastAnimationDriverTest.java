@@ -0,0 +1,239 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ToastAnimationDriverTest {
+
+    private static final float DELTA = 0.0001f;
+
+    private FakeFrameClock frameClock;
+    private ToastAnimationDriver driver;
+
+    @Before
+    public void setUp() {
+        frameClock = new FakeFrameClock();
+        driver = new ToastAnimationDriver(frameClock);
+    }
+
+    @Test
+    public void timeStartsOnTheFirstFrame() {
+        RecordingTimeline timeline = new RecordingTimeline(500, 200, 250, 40);
+        driver.start(timeline);
+
+        frameClock.frame(1000);
+        assertEquals(0, timeline.translationY, DELTA);
+        assertEquals(1, timeline.alpha, DELTA);
+
+        frameClock.frame(1250);
+        assertEquals(-20, timeline.translationY, DELTA);
+        assertEquals(1, timeline.alpha, DELTA);
+
+        frameClock.frame(1500);
+        assertEquals(-40, timeline.translationY, DELTA);
+        assertEquals(1, timeline.alpha, DELTA);
+
+        frameClock.frame(1825);
+        assertEquals(-40, timeline.translationY, DELTA);
+        assertEquals(0.5f, timeline.alpha, DELTA);
+    }
+
+    @Test
+    public void endsOnTheFrameTheFadeEnds() {
+        RecordingTimeline timeline = new RecordingTimeline(500, 200, 250, 40);
+        driver.start(timeline);
+
+        frameClock.frame(0);
+        frameClock.frame(949);
+        assertEquals(0, timeline.endCount);
+        assertTrue(timeline.isRunning());
+
+        frameClock.frame(950);
+        assertEquals(1, timeline.endCount);
+        assertEquals(0, timeline.alpha, DELTA);
+        assertEquals(-40, timeline.translationY, DELTA);
+        assertFalse(timeline.isRunning());
+        assertEquals(0, frameClock.pendingFrames);
+    }
+
+    @Test
+    public void allTimelinesShareOneFrameCallback() {
+        for (int i = 0; i < 10; i++)
+            driver.start(new RecordingTimeline(500, 200, 250, 40));
+
+        assertEquals(1, frameClock.pendingFrames);
+        frameClock.frame(0);
+        assertEquals(1, frameClock.pendingFrames);
+        assertEquals(10, driver.getRunningCount());
+    }
+
+    @Test
+    public void timelinesKeepTheirOwnStateWhenOthersEnd() {
+        RecordingTimeline[] timelines = new RecordingTimeline[20];
+        for (int i = 0; i < timelines.length; i++) {
+            timelines[i] = new RecordingTimeline(100 * (i % 4 + 1), 0, 100, 10 * (i + 1));
+            driver.start(timelines[i]);
+        }
+        frameClock.frame(0);
+
+        frameClock.frame(250);
+        for (int i = 0; i < timelines.length; i++) {
+            boolean hasEnded = i % 4 == 0;
+            assertEquals(hasEnded ? 1 : 0, timelines[i].endCount);
+            assertEquals(!hasEnded, timelines[i].isRunning());
+        }
+        assertEquals(15, driver.getRunningCount());
+
+        frameClock.frame(400);
+        for (int i = 0; i < timelines.length; i++) {
+            if(i % 4 == 3)
+                assertEquals(-10 * (i + 1), timelines[i].translationY, DELTA);
+        }
+
+        frameClock.frame(500);
+        for (RecordingTimeline timeline : timelines)
+            assertEquals(1, timeline.endCount);
+        assertEquals(0, driver.getRunningCount());
+    }
+
+    @Test
+    public void cancelledTimelineNeverEnds() {
+        RecordingTimeline cancelled = new RecordingTimeline(500, 200, 250, 40);
+        RecordingTimeline other = new RecordingTimeline(500, 200, 250, 40);
+        driver.start(cancelled);
+        driver.start(other);
+        frameClock.frame(0);
+
+        driver.cancel(cancelled);
+        frameClock.frame(2000);
+
+        assertEquals(0, cancelled.endCount);
+        assertEquals(1, other.endCount);
+        assertEquals(0, driver.getRunningCount());
+    }
+
+    @Test
+    public void restartBeginsTheTimelineAgain() {
+        RecordingTimeline timeline = new RecordingTimeline(500, 200, 250, 40);
+        driver.start(timeline);
+        frameClock.frame(0);
+        frameClock.frame(900);
+
+        driver.start(timeline);
+        frameClock.frame(1000);
+        assertEquals(0, timeline.translationY, DELTA);
+        assertEquals(1, timeline.alpha, DELTA);
+        assertEquals(1, driver.getRunningCount());
+
+        frameClock.frame(1950);
+        assertEquals(1, timeline.endCount);
+    }
+
+    @Test
+    public void timelineStartedFromOnEndRunsOnTheNextFrame() {
+        final RecordingTimeline next = new RecordingTimeline(500, 200, 250, 40);
+        RecordingTimeline first = new RecordingTimeline(100, 0, 100, 40) {
+            @Override
+            void onEnd() {
+                super.onEnd();
+                driver.start(next);
+            }
+        };
+        driver.start(first);
+        frameClock.frame(0);
+        frameClock.frame(200);
+
+        assertEquals(1, first.endCount);
+        assertEquals(1, driver.getRunningCount());
+        assertEquals(1, frameClock.pendingFrames);
+
+        frameClock.frame(216);
+        assertEquals(0, next.translationY, DELTA);
+    }
+
+    @Test
+    public void floatFollowsTheInterpolator() {
+        RecordingTimeline timeline = new RecordingTimeline(500, 200, 250, 40);
+        timeline.floatInterpolator = new TimeInterpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                return input;
+            }
+        };
+        driver.start(timeline);
+
+        frameClock.frame(1000);
+        frameClock.frame(1125);
+        assertEquals(-10, timeline.translationY, DELTA);
+
+        frameClock.frame(1500);
+        assertEquals(-40, timeline.translationY, DELTA);
+    }
+
+    @Test
+    public void springOvershootsThenRestsAtTheDistance() {
+        TimeInterpolator spring = ToastMotion.SPRING;
+        float peak = 0;
+        for (int i = 0; i <= 100; i++)
+            peak = Math.max(peak, spring.getInterpolation(i / 100f));
+
+        assertEquals(0, spring.getInterpolation(0), DELTA);
+        assertTrue(peak > 1.1f);
+        assertEquals(1, spring.getInterpolation(0.99f), 0.01f);
+        assertEquals(1, spring.getInterpolation(1), DELTA);
+    }
+
+    @Test
+    public void flingSlowsDown() {
+        TimeInterpolator fling = ToastMotion.FLING;
+
+        assertEquals(0, fling.getInterpolation(0), DELTA);
+        assertEquals(1, fling.getInterpolation(1), DELTA);
+        assertTrue(fling.getInterpolation(0.25f) > 0.5f);
+    }
+
+    private static class RecordingTimeline extends ToastAnimationDriver.Timeline {
+        float translationY;
+        float alpha = 1;
+        int endCount;
+
+        RecordingTimeline(long duration, long standByDuration, long fadeOutDuration, float distance) {
+            set(duration, standByDuration, fadeOutDuration, distance);
+        }
+
+        @Override
+        void onFrame(float translationY, float alpha) {
+            this.translationY = translationY;
+            this.alpha = alpha;
+        }
+
+        @Override
+        void onEnd() {
+            endCount++;
+        }
+    }
+
+    private static class FakeFrameClock implements ToastAnimationDriver.FrameClock {
+        ToastAnimationDriver driver;
+        int pendingFrames;
+
+        @Override
+        public void postFrame(ToastAnimationDriver driver) {
+            this.driver = driver;
+            pendingFrames++;
+        }
+
+        void frame(long frameTimeMillis) {
+            if(pendingFrames == 0)
+                return;
+            pendingFrames--;
+            driver.doFrame(frameTimeMillis);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowDialog;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastAnimationEngineTest {
+
+    private Activity activity;
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        listener = new RecordingListener();
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void dialogIsPromotedToAHardwareLayerWhileShown() {
+        FloatingToast.makeToast(activity, "layer", FloatingToast.LENGTH_QUICK)
+                .setAnimationEngine(FloatingToast.ANIMATION_ENGINE_HARDWARE_LAYER)
+                .show();
+        View decorView = ShadowDialog.getLatestDialog().getWindow().getDecorView();
+        assertEquals(View.LAYER_TYPE_HARDWARE, decorView.getLayerType());
+
+        idle();
+        assertEquals(View.LAYER_TYPE_NONE, decorView.getLayerType());
+    }
+
+    @Test
+    public void overlayIsPromotedToAHardwareLayerWhileShown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        FloatingToast.makeToast(activity, "layer", FloatingToast.LENGTH_QUICK)
+                .setAnimationEngine(FloatingToast.ANIMATION_ENGINE_HARDWARE_LAYER)
+                .show();
+        View toastView = ToastOverlayContainer.obtain(activity).getChildAt(0);
+        assertEquals(View.LAYER_TYPE_HARDWARE, toastView.getLayerType());
+
+        idle();
+        assertEquals(View.LAYER_TYPE_NONE, toastView.getLayerType());
+    }
+
+    @Test
+    public void defaultEngineAddsNoLayer() {
+        FloatingToast.makeToast(activity, "plain", FloatingToast.LENGTH_QUICK).show();
+
+        View decorView = ShadowDialog.getLatestDialog().getWindow().getDecorView();
+        assertEquals(View.LAYER_TYPE_NONE, decorView.getLayerType());
+    }
+
+    @Test
+    public void framesAreReportedOnceTheDialogIsDismissed() {
+        FloatingToast toast = FloatingToast.makeToast(activity, "frames", FloatingToast.LENGTH_QUICK);
+        toast.setOnFramesRenderedListener(listener).show();
+        assertEquals(0, listener.toasts.size());
+
+        idle();
+        assertEquals(1, listener.toasts.size());
+        assertSame(toast, listener.toasts.get(0));
+        assertTrue(listener.frameCounts.get(0) >= 0);
+    }
+
+    @Test
+    public void everyOverlayToastReportsItsOwnFrames() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        FloatingToast first = FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK);
+        FloatingToast second = FloatingToast.makeToast(activity, "second", FloatingToast.LENGTH_LONG);
+        first.setOnFramesRenderedListener(listener).show();
+        second.setOnFramesRenderedListener(listener).show();
+
+        ShadowLooper.idleMainLooper(FloatingToast.LENGTH_QUICK + 1000, TimeUnit.MILLISECONDS);
+        assertEquals(1, listener.toasts.size());
+        assertSame(first, listener.toasts.get(0));
+
+        idle();
+        assertEquals(2, listener.toasts.size());
+        assertSame(second, listener.toasts.get(1));
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static class RecordingListener implements FloatingToast.OnFramesRenderedListener {
+        final List<FloatingToast> toasts = new ArrayList<>();
+        final List<Integer> frameCounts = new ArrayList<>();
+
+        @Override
+        public void onFramesRendered(FloatingToast toast, int frameCount) {
+            toasts.add(toast);
+            frameCounts.add(frameCount);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastGeometryTest {
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void geometryIsKeptPerActivity() {
+        Activity other = Robolectric.buildActivity(Activity.class).setup().get();
+
+        assertSame(ToastGeometry.obtain(activity), ToastGeometry.obtain(activity));
+        assertNotSame(ToastGeometry.obtain(activity), ToastGeometry.obtain(other));
+    }
+
+    @Test
+    public void displayHeightMatchesTheDisplay() {
+        DisplayMetrics displayMetrics = new DisplayMetrics();
+        activity.getWindowManager().getDefaultDisplay().getMetrics(displayMetrics);
+
+        assertEquals(displayMetrics.heightPixels, ToastGeometry.obtain(activity).getDisplayHeight());
+    }
+
+    @Test
+    public void insetsFollowTheDecorViewSize() {
+        View decorView = activity.getWindow().getDecorView();
+        ToastGeometry geometry = ToastGeometry.obtain(activity);
+        Rect visibleFrame = new Rect();
+        decorView.getWindowVisibleDisplayFrame(visibleFrame);
+        assertEquals(visibleFrame.top, geometry.getWindowTop());
+
+        int height = visibleFrame.bottom * 2;
+        decorView.layout(0, 0, decorView.getWidth(), height);
+
+        int[] location = new int[2];
+        decorView.getLocationOnScreen(location);
+        assertEquals(location[1] + height - visibleFrame.bottom, geometry.getInsets().bottom);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.app.Dialog;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowDialog;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastHandleTest {
+
+    private Activity activity;
+    private RecordingCallback callback;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        callback = new RecordingCallback();
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToastScheduler.getInstance().setMaxConcurrentToasts(FloatingToastScheduler.UNLIMITED);
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void cancelDismissesAShownToast() {
+        ToastHandle handle = FloatingToast.makeToast(activity, "shown", FloatingToast.LENGTH_LONG).show()
+                .setCallback(callback);
+        assertTrue(handle.isShowing());
+
+        handle.cancel();
+
+        assertFalse(handle.isShowing());
+        assertEquals(0, ToastOverlayContainer.obtain(activity).getChildCount());
+        assertEquals(0, ToastAnimationDriver.getInstance().getRunningCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_CANCELED, (int) callback.dismissReasons.get(0));
+    }
+
+    @Test
+    public void cancelDropsAWaitingToast() {
+        FloatingToastScheduler.getInstance().setMaxConcurrentToasts(1);
+        FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK).show();
+        ToastHandle waiting = FloatingToast.makeToast(activity, "waiting", FloatingToast.LENGTH_QUICK).show()
+                .setCallback(callback);
+        assertEquals(1, FloatingToastScheduler.getInstance().getPendingCount());
+
+        waiting.cancel();
+        idle();
+
+        assertEquals(0, FloatingToastScheduler.getInstance().getPendingCount());
+        assertEquals(0, callback.shownCount);
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_CANCELED, (int) callback.dismissReasons.get(0));
+    }
+
+    @Test
+    public void updateTextReusesTheShownWindow() {
+        ToastHandle handle = FloatingToast.makeToast(activity, "before", FloatingToast.LENGTH_LONG).show();
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        Object window = container.getChildAt(0);
+
+        handle.updateText("after");
+
+        assertEquals(1, container.getChildCount());
+        assertSame(window, container.getChildAt(0));
+        ToastContent content = new ToastContent(container.getChildAt(0));
+        assertEquals("after", content.messageTextView.getText().toString());
+    }
+
+    @Test
+    public void callbackFollowsTheToast() {
+        FloatingToast.makeToast(activity, "timed", FloatingToast.LENGTH_QUICK).setToastCallback(callback).show();
+        assertEquals(1, callback.shownCount);
+
+        idle();
+        assertEquals(1, callback.dismissReasons.size());
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_TIMEOUT, (int) callback.dismissReasons.get(0));
+    }
+
+    @Test
+    public void cancelDropsAToastShownManyTimesWhileWaiting() {
+        FloatingToastScheduler.getInstance().setMaxConcurrentToasts(1);
+        FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK).show();
+        FloatingToast waiting = FloatingToast.makeToast(activity, "waiting", FloatingToast.LENGTH_QUICK);
+        waiting.setToastCallback(callback);
+        waiting.show();
+        ToastHandle handle = waiting.show();
+        assertEquals(1, FloatingToastScheduler.getInstance().getPendingCount());
+
+        handle.cancel();
+        idle();
+
+        assertEquals(0, FloatingToastScheduler.getInstance().getPendingCount());
+        assertEquals(0, FloatingToastScheduler.getInstance().getActiveCount());
+        assertEquals(0, callback.shownCount);
+        assertEquals(1, callback.dismissReasons.size());
+    }
+
+    @Test
+    public void dialogToastCanBeShownAgainRightAfterCancel() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        FloatingToast toast = FloatingToast.makeToast(activity, "again", FloatingToast.LENGTH_QUICK);
+        toast.setToastCallback(callback);
+        ToastHandle handle = toast.show();
+        Dialog dialog = ShadowDialog.getLatestDialog();
+
+        handle.cancel();
+        assertEquals(1, callback.dismissReasons.size());
+        assertEquals(1, ToastWindowPool.size(activity));
+
+        toast.show();
+        // Delivers whatever the first dismissal posted.
+        ShadowLooper.idleMainLooper();
+
+        assertTrue(handle.isShowing());
+        assertTrue(dialog.isShowing());
+        assertEquals(1, callback.dismissReasons.size());
+        assertEquals(0, ToastWindowPool.size(activity));
+
+        idle();
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_TIMEOUT, (int) callback.dismissReasons.get(1));
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static class RecordingCallback implements ToastHandle.Callback {
+        int shownCount;
+        final List<Integer> dismissReasons = new ArrayList<>();
+
+        @Override
+        public void onShown(ToastHandle handle) {
+            shownCount++;
+        }
+
+        @Override
+        public void onDismissed(ToastHandle handle, int dismissReason) {
+            dismissReasons.add(dismissReason);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.app.Application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = ToastLifecycleRegistryTest.CountingApplication.class)
+public class ToastLifecycleRegistryTest {
+
+    private ActivityController<Activity> controller;
+    private Activity activity;
+    private CountingApplication application;
+
+    @Before
+    public void setUp() {
+        controller = Robolectric.buildActivity(Activity.class).setup();
+        activity = controller.get();
+        application = (CountingApplication) activity.getApplication();
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToastScheduler.getInstance().setMaxConcurrentToasts(FloatingToastScheduler.UNLIMITED);
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+    }
+
+    @Test
+    public void callbackCountStaysConstantAfterManyShows() {
+        int before = application.registeredCallbacks;
+
+        for (int batch = 0; batch < 100; batch++) {
+            for (int i = 0; i < 10; i++)
+                FloatingToast.makeToast(activity, "toast " + i, FloatingToast.LENGTH_QUICK).show();
+            ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+            ShadowLooper.idleMainLooper();
+        }
+
+        assertEquals(1, application.registeredCallbacks - before);
+        assertEquals(0, ToastLifecycleRegistry.getInstance(activity).getLiveToastCount(activity));
+    }
+
+    @Test
+    public void pauseDismissesOnlyThatActivitysToasts() {
+        Activity other = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.makeToast(activity, "mine", FloatingToast.LENGTH_LONG).show();
+        FloatingToast.makeToast(activity, "mine too", FloatingToast.LENGTH_LONG).show();
+        FloatingToast.makeToast(other, "other", FloatingToast.LENGTH_LONG).show();
+
+        ToastLifecycleRegistry registry = ToastLifecycleRegistry.getInstance(activity);
+        assertEquals(2, registry.getLiveToastCount(activity));
+        assertEquals(1, registry.getLiveToastCount(other));
+
+        controller.pause();
+        assertEquals(0, registry.getLiveToastCount(activity));
+        assertEquals(1, registry.getLiveToastCount(other));
+        assertFalse(activity.isFinishing());
+    }
+
+    @Test
+    public void noToastIsRetainedOnceTheActivityIsDestroyed() {
+        // Overlay windows, as the shadow of Dialog keeps the dialogs it has seen.
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        FloatingToastScheduler.getInstance().setMaxConcurrentToasts(2);
+        List<WeakReference<FloatingToast>> toasts = showToasts(activity, 5);
+        assertEquals(3, FloatingToastScheduler.getInstance().getPendingCount());
+
+        controller.pause().stop().destroy();
+        controller = null;
+        activity = null;
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, FloatingToastScheduler.getInstance().getPendingCount());
+        assertEquals(0, FloatingToastScheduler.getInstance().getActiveCount());
+        for (WeakReference<FloatingToast> toast : toasts)
+            assertNull(collect(toast));
+    }
+
+    @Test
+    public void lateDialogDismissalDoesNotPoolADestroyedActivity() {
+        assertLateReleaseIsNotPooled();
+    }
+
+    @Test
+    @Config(sdk = 16)
+    public void lateDialogDismissalDoesNotPoolADestroyedActivityBeforeApi17() {
+        assertLateReleaseIsNotPooled();
+    }
+
+    /**
+     * A configuration change pauses, stops and destroys the activity, without finishing
+     * it, before a posted dialog dismissal hands its window back.
+     */
+    private void assertLateReleaseIsNotPooled() {
+        FloatingToast.makeToast(activity, "relaunched", FloatingToast.LENGTH_LONG).show();
+        ToastWindow late = ToastWindowPool.acquire(activity, FloatingToast.WINDOW_MODE_DIALOG);
+
+        controller.pause().stop().destroy();
+        ShadowLooper.idleMainLooper();
+        ToastWindowPool.release(late);
+
+        assertFalse(activity.isFinishing());
+        assertEquals(0, ToastWindowPool.size(activity));
+    }
+
+    private static List<WeakReference<FloatingToast>> showToasts(Activity activity, int count) {
+        List<WeakReference<FloatingToast>> toasts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            FloatingToast toast = FloatingToast.makeToast(activity, "toast " + i, FloatingToast.LENGTH_LONG);
+            toast.show();
+            toasts.add(new WeakReference<>(toast));
+        }
+        return toasts;
+    }
+
+    private static <T> T collect(WeakReference<T> reference) {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+        return reference.get();
+    }
+
+    public static class CountingApplication extends Application {
+        int registeredCallbacks;
+
+        @Override
+        public void registerActivityLifecycleCallbacks(ActivityLifecycleCallbacks callback) {
+            registeredCallbacks++;
+            super.registerActivityLifecycleCallbacks(callback);
+        }
+    }
+}
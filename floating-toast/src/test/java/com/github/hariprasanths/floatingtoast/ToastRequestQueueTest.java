@@ -0,0 +1,106 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastRequestQueueTest {
+
+    private Activity activity;
+    private CountingHandler handler;
+    private ToastRequestQueue queue;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        handler = new CountingHandler();
+        queue = new ToastRequestQueue(handler);
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void burstFromWorkerThreadsCostsOneMessage() throws InterruptedException {
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10; i++)
+                        queue.offer(new ToastRequestQueue.Request(null, activity, "sync " + i,
+                                FloatingToast.LENGTH_LONG, null));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        assertEquals(1, handler.messages.get());
+        ShadowLooper.idleMainLooper();
+        assertEquals(40, ToastOverlayContainer.obtain(activity).getChildCount());
+    }
+
+    @Test
+    public void toastsAreShownInTheOrderTheyWereRequested() throws InterruptedException {
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queue.offer(new ToastRequestQueue.Request(null, activity, "a", FloatingToast.LENGTH_LONG, null));
+                queue.offer(new ToastRequestQueue.Request(null, activity, "b", FloatingToast.LENGTH_LONG, null));
+                queue.offer(new ToastRequestQueue.Request(null, activity, "c", FloatingToast.LENGTH_LONG, null));
+            }
+        });
+        worker.start();
+        worker.join();
+        ShadowLooper.idleMainLooper();
+
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        assertEquals(3, container.getChildCount());
+        assertEquals("a", new ToastContent(container.getChildAt(0)).messageTextView.getText().toString());
+        assertEquals("b", new ToastContent(container.getChildAt(1)).messageTextView.getText().toString());
+        assertEquals("c", new ToastContent(container.getChildAt(2)).messageTextView.getText().toString());
+    }
+
+    @Test
+    public void requestOfferedAfterADrainPostsAgain() {
+        queue.offer(new ToastRequestQueue.Request(null, activity, "first", FloatingToast.LENGTH_LONG, null));
+        ShadowLooper.idleMainLooper();
+        queue.offer(new ToastRequestQueue.Request(null, activity, "second", FloatingToast.LENGTH_LONG, null));
+
+        assertEquals(2, handler.messages.get());
+    }
+
+    private static class CountingHandler extends Handler {
+        final AtomicInteger messages = new AtomicInteger();
+
+        CountingHandler() {
+            super(Looper.getMainLooper());
+        }
+
+        @Override
+        public boolean sendMessageAtTime(Message msg, long uptimeMillis) {
+            messages.incrementAndGet();
+            return super.sendMessageAtTime(msg, uptimeMillis);
+        }
+    }
+}
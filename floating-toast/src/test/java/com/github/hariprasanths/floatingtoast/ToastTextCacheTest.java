@@ -0,0 +1,119 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.text.TextPaint;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastTextCacheTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setTextPrecomputeExecutor(null);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void repeatedMessageSkipsMeasuring() {
+        FloatingToast.setTextPrecomputeExecutor(DIRECT);
+        ToastTextCache cache = ToastTextCache.getInstance();
+
+        FloatingToast.makeToast(activity, "Synchronisierung abgeschlossen", FloatingToast.LENGTH_QUICK).show();
+        idle();
+        // The pooled window shows another message in between.
+        FloatingToast.makeToast(activity, "Keine Verbindung", FloatingToast.LENGTH_QUICK).show();
+        idle();
+        int hits = cache.getHitCount();
+
+        FloatingToast.makeToast(activity, "Synchronisierung abgeschlossen", FloatingToast.LENGTH_QUICK).show();
+
+        assertEquals(hits + 1, cache.getHitCount());
+        idle();
+    }
+
+    @Test
+    public void loadedTextIsMeasuredBeforeTheToastHasAWindow() {
+        ToastTextCache cache = ToastTextCache.getInstance();
+        FloatingToastSpec spec = new FloatingToastSpec.Builder().setTextSizeInSp(20).build();
+        // Styles a window with the spec.
+        FloatingToast.makeToast(activity, "Gespeichert", FloatingToast.LENGTH_QUICK, spec).show();
+        idle();
+        int hits = cache.getHitCount();
+
+        // The direct executor loads the text before show() takes a window.
+        FloatingToast.makeToast(activity, new Callable<String>() {
+            @Override
+            public String call() {
+                return "3 Dateien hochgeladen";
+            }
+        }, DIRECT, FloatingToast.LENGTH_QUICK, spec).show();
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(hits + 1, cache.getHitCount());
+        idle();
+    }
+
+    @Test
+    public void eldestMessageIsEvicted() {
+        ToastTextCache cache = new ToastTextCache(2);
+        PrecomputedTextCompat.Params params = new PrecomputedTextCompat.Params.Builder(new TextPaint()).build();
+
+        cache.put("a", PrecomputedTextCompat.create("a", params));
+        cache.put("b", PrecomputedTextCompat.create("b", params));
+        assertNotNull(cache.get("a", params));
+        cache.put("c", PrecomputedTextCompat.create("c", params));
+
+        assertNotNull(cache.get("a", params));
+        assertNull(cache.get("b", params));
+        assertNotNull(cache.get("c", params));
+    }
+
+    @Test
+    public void otherParamsAreAnotherEntry() {
+        ToastTextCache cache = new ToastTextCache(2);
+        TextPaint large = new TextPaint();
+        large.setTextSize(48);
+        PrecomputedTextCompat.Params params = new PrecomputedTextCompat.Params.Builder(new TextPaint()).build();
+        PrecomputedTextCompat.Params largeParams = new PrecomputedTextCompat.Params.Builder(large).build();
+
+        cache.put("a", PrecomputedTextCompat.create("a", params));
+
+        assertNull(cache.get("a", largeParams));
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastTextLoaderTest {
+
+    private Activity activity;
+    private WorkerExecutor executor;
+    private Thread textThread;
+    private RecordingCallback callback;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_OVERLAY);
+        executor = new WorkerExecutor();
+        callback = new RecordingCallback();
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setDefaultWindowMode(FloatingToast.WINDOW_MODE_DIALOG);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void textIsResolvedOffTheMainThread() throws InterruptedException {
+        FloatingToast.makeToast(activity, text("3 items synced"), executor, FloatingToast.LENGTH_LONG, null).show();
+        ToastOverlayContainer container = ToastOverlayContainer.obtain(activity);
+        assertEquals(0, container.getChildCount());
+
+        executor.runAll();
+        ShadowLooper.idleMainLooper();
+
+        assertNotNull(textThread);
+        assertFalse(textThread == Looper.getMainLooper().getThread());
+        assertEquals(1, container.getChildCount());
+        assertEquals("3 items synced", new ToastContent(container.getChildAt(0)).messageTextView.getText().toString());
+    }
+
+    @Test
+    public void cancelWhileLoadingShowsNothing() throws InterruptedException {
+        ToastHandle handle = FloatingToast.makeToast(activity, text("late"), executor, FloatingToast.LENGTH_LONG, null)
+                .show();
+
+        handle.cancel();
+        executor.runAll();
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, ToastOverlayContainer.obtain(activity).getChildCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void failingTextIsDroppedAndReported() throws InterruptedException {
+        FloatingToast toast = FloatingToast.makeToast(activity, new Callable<String>() {
+            @Override
+            public String call() {
+                throw new IllegalArgumentException("Bad format");
+            }
+        }, executor, FloatingToast.LENGTH_LONG, null);
+        toast.setToastCallback(callback);
+        ToastHandle handle = toast.show();
+
+        executor.runAll();
+        ShadowLooper.idleMainLooper();
+
+        assertLoadFailed(handle);
+    }
+
+    @Test
+    public void textThrowingAnErrorIsDroppedAndReported() throws InterruptedException {
+        FloatingToast toast = FloatingToast.makeToast(activity, new Callable<String>() {
+            @Override
+            public String call() {
+                throw new AssertionError("Missing translation");
+            }
+        }, executor, FloatingToast.LENGTH_LONG, null);
+        toast.setToastCallback(callback);
+        ToastHandle handle = toast.show();
+
+        executor.runAll();
+        ShadowLooper.idleMainLooper();
+
+        assertLoadFailed(handle);
+    }
+
+    @Test
+    public void rejectedLoadIsDroppedAndCanBeShownAgain() throws InterruptedException {
+        RejectingExecutor rejectingExecutor = new RejectingExecutor();
+        FloatingToast toast = FloatingToast.makeToast(activity, text("retried"), rejectingExecutor,
+                FloatingToast.LENGTH_LONG, null);
+        toast.setToastCallback(callback);
+        ToastHandle handle = toast.show();
+
+        assertLoadFailed(handle);
+
+        rejectingExecutor.isShutdown = false;
+        toast.show();
+        rejectingExecutor.runAll();
+        ShadowLooper.idleMainLooper();
+
+        assertTrue(handle.isShowing());
+        assertEquals(1, ToastOverlayContainer.obtain(activity).getChildCount());
+    }
+
+    private void assertLoadFailed(ToastHandle handle) {
+        assertFalse(handle.isShowing());
+        assertEquals(0, ToastOverlayContainer.obtain(activity).getChildCount());
+        assertEquals(1, ToastWindowPool.size(activity));
+        assertEquals(1, callback.dismissReasons.size());
+        assertEquals(FloatingToastMetrics.DISMISS_REASON_TEXT_LOAD_FAILED, (int) callback.dismissReasons.get(0));
+    }
+
+    private Callable<String> text(final String text) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                textThread = Thread.currentThread();
+                return text;
+            }
+        };
+    }
+
+    private static class RecordingCallback implements ToastHandle.Callback {
+        final List<Integer> dismissReasons = new ArrayList<>();
+
+        @Override
+        public void onShown(ToastHandle handle) {
+        }
+
+        @Override
+        public void onDismissed(ToastHandle handle, int dismissReason) {
+            dismissReasons.add(dismissReason);
+        }
+    }
+
+    /**
+     * Rejects the submitted tasks while shut down, like an executor service.
+     */
+    private static class RejectingExecutor extends WorkerExecutor {
+        boolean isShutdown = true;
+
+        @Override
+        public void execute(Runnable command) {
+            if(isShutdown)
+                throw new RejectedExecutionException("Shut down");
+            super.execute(command);
+        }
+    }
+
+    /**
+     * Runs the submitted tasks on a worker thread when asked to.
+     */
+    private static class WorkerExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() throws InterruptedException {
+            for (Runnable task : tasks) {
+                Thread worker = new Thread(task);
+                worker.start();
+                worker.join();
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.graphics.Color;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastTraceTest {
+
+    private ActivityController<Activity> controller;
+    private Activity activity;
+    private RecordingTracer tracer;
+
+    @Before
+    public void setUp() {
+        controller = Robolectric.buildActivity(Activity.class).setup();
+        activity = controller.get();
+        tracer = new RecordingTracer();
+        ToastTrace.setTracer(tracer);
+    }
+
+    @After
+    public void tearDown() {
+        ToastTrace.setTracer(null);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void sectionsFollowThePhasesOfTheToast() {
+        FloatingToastSpec spec = new FloatingToastSpec.Builder().setTextColor(Color.RED).build();
+        FloatingToast.makeToast(activity, "traced", FloatingToast.LENGTH_QUICK, spec).show();
+        idle();
+
+        tracer.assertInOrder(
+                "B " + ToastTrace.MAKE,
+                "B " + ToastTrace.SHOW,
+                "B " + ToastTrace.APPLY_SPEC,
+                "AB " + ToastTrace.LIFETIME,
+                "B " + ToastTrace.START_ANIMATION,
+                "B " + ToastTrace.DO_FRAME,
+                "AB " + ToastTrace.PHASE_FLOAT,
+                "AE " + ToastTrace.PHASE_FLOAT,
+                "AB " + ToastTrace.PHASE_STAND_BY,
+                "AE " + ToastTrace.PHASE_STAND_BY,
+                "AB " + ToastTrace.PHASE_FADE,
+                "B " + ToastTrace.DISMISS,
+                "AE " + ToastTrace.PHASE_FADE,
+                "AE " + ToastTrace.LIFETIME);
+        tracer.assertBalanced();
+    }
+
+    @Test
+    public void earlyDismissalEndsTheAsyncSections() {
+        FloatingToast.makeToast(activity, "paused", FloatingToast.LENGTH_LONG).show();
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+
+        controller.pause();
+        idle();
+
+        tracer.assertInOrder(
+                "AB " + ToastTrace.LIFETIME,
+                "B " + ToastTrace.DISMISS,
+                "AE " + ToastTrace.LIFETIME);
+        tracer.assertBalanced();
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static class RecordingTracer implements ToastTrace.Tracer {
+        final List<String> events = new ArrayList<>();
+        final List<Integer> cookies = new ArrayList<>();
+
+        @Override
+        public void beginSection(String name) {
+            record("B " + name, 0);
+        }
+
+        @Override
+        public void endSection() {
+            record("E", 0);
+        }
+
+        @Override
+        public void beginAsyncSection(String name, int cookie) {
+            record("AB " + name, cookie);
+        }
+
+        @Override
+        public void endAsyncSection(String name, int cookie) {
+            record("AE " + name, cookie);
+        }
+
+        private void record(String event, int cookie) {
+            events.add(event);
+            cookies.add(cookie);
+        }
+
+        void assertInOrder(String... expected) {
+            int from = 0;
+            for (String event : expected) {
+                int index = events.subList(from, events.size()).indexOf(event);
+                assertTrue(event + " missing or out of order in " + events, index >= 0);
+                from += index + 1;
+            }
+        }
+
+        /**
+         * Sections never end more than they began, and every async section began
+         * is ended with the same cookie.
+         */
+        void assertBalanced() {
+            int depth = 0;
+            List<String> open = new ArrayList<>();
+            for (int i = 0; i < events.size(); i++) {
+                String event = events.get(i);
+                if(event.startsWith("B "))
+                    depth++;
+                else if(event.equals("E"))
+                    depth--;
+                else if(event.startsWith("AB "))
+                    open.add(event.substring(3) + "#" + cookies.get(i));
+                else
+                    assertTrue(event + " was not begun", open.remove(event.substring(3) + "#" + cookies.get(i)));
+                assertTrue(depth >= 0);
+            }
+            assertEquals(0, depth);
+            assertEquals(new ArrayList<String>(), open);
+        }
+    }
+}
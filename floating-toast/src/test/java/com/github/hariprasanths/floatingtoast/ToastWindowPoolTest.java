@@ -0,0 +1,179 @@
+package com.github.hariprasanths.floatingtoast;
+
+import android.app.Activity;
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ToastWindowPoolTest {
+
+    private ActivityController<Activity> controller;
+    private Activity activity;
+    private int inflations;
+
+    @Before
+    public void setUp() {
+        controller = Robolectric.buildActivity(Activity.class).setup();
+        activity = controller.get();
+        activity.getLayoutInflater().setFactory2(new LayoutInflater.Factory2() {
+            @Override
+            public View onCreateView(View parent, String name, Context context, AttributeSet attrs) {
+                return onCreateView(name, context, attrs);
+            }
+
+            @Override
+            public View onCreateView(String name, Context context, AttributeSet attrs) {
+                if("RelativeLayout".equals(name))
+                    inflations++;
+                return null;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        FloatingToast.setWindowPoolSize(ToastWindowPool.DEFAULT_MAX_SIZE);
+        ToastWindowPool.evict(activity);
+    }
+
+    @Test
+    public void dismissedWindowIsReused() {
+        showAndFinish(FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK));
+        assertEquals(1, inflations);
+        assertEquals(1, ToastWindowPool.size(activity));
+
+        for (int i = 0; i < 10; i++)
+            showAndFinish(FloatingToast.makeToast(activity, "again", FloatingToast.LENGTH_QUICK));
+
+        assertEquals(1, inflations);
+    }
+
+    @Test
+    public void poolIsBoundedByMaxSize() {
+        FloatingToast.setWindowPoolSize(2);
+
+        FloatingToast[] toasts = new FloatingToast[4];
+        for (int i = 0; i < toasts.length; i++) {
+            toasts[i] = FloatingToast.makeToast(activity, "burst", FloatingToast.LENGTH_QUICK);
+            toasts[i].show();
+        }
+        assertEquals(4, inflations);
+
+        idle();
+        assertEquals(2, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void disabledPoolInflatesEveryTime() {
+        FloatingToast.setWindowPoolSize(0);
+
+        for (int i = 0; i < 3; i++)
+            showAndFinish(FloatingToast.makeToast(activity, "no pool", FloatingToast.LENGTH_QUICK));
+
+        assertEquals(3, inflations);
+        assertEquals(0, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void poolIsEvictedWhenActivityIsDestroyed() {
+        showAndFinish(FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK));
+        assertEquals(1, ToastWindowPool.size(activity));
+
+        controller.pause().stop().destroy();
+        assertEquals(0, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void prewarmInflatesAWindowAtIdle() {
+        final long[] reportedNanos = { -1 };
+        final Activity[] reportedActivity = new Activity[1];
+        FloatingToast.prewarm(activity, new FloatingToast.OnPrewarmedListener() {
+            @Override
+            public void onPrewarmed(Activity prewarmed, long durationNanos) {
+                reportedActivity[0] = prewarmed;
+                reportedNanos[0] = durationNanos;
+            }
+        });
+        assertEquals(0, inflations);
+
+        idle();
+        assertEquals(1, inflations);
+        assertEquals(1, ToastWindowPool.size(activity));
+        assertSame(activity, reportedActivity[0]);
+        assertTrue(reportedNanos[0] >= 0);
+
+        showAndFinish(FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK));
+        assertEquals(1, inflations);
+    }
+
+    @Test
+    public void prewarmKeepsAnIdleWindow() {
+        showAndFinish(FloatingToast.makeToast(activity, "first", FloatingToast.LENGTH_QUICK));
+
+        FloatingToast.prewarm(activity);
+        idle();
+
+        assertEquals(1, inflations);
+        assertEquals(1, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void prewarmOfADestroyedActivityInflatesNothing() {
+        final int[] prewarms = { 0 };
+        FloatingToast.OnPrewarmedListener listener = new FloatingToast.OnPrewarmedListener() {
+            @Override
+            public void onPrewarmed(Activity prewarmed, long durationNanos) {
+                prewarms[0]++;
+            }
+        };
+        ToastPrewarmer late = new ToastPrewarmer(activity, FloatingToast.WINDOW_MODE_DIALOG, listener);
+
+        // Destroyed by a configuration change, without finishing.
+        controller.pause().stop().destroy();
+        int inflated = inflations;
+        assertFalse(late.queueIdle());
+        ToastWindowPool.prewarm(activity, FloatingToast.WINDOW_MODE_DIALOG);
+
+        assertEquals(inflated, inflations);
+        assertEquals(0, prewarms[0]);
+        assertEquals(0, ToastWindowPool.size(activity));
+    }
+
+    @Test
+    public void pendingPrewarmIsDroppedWithItsActivity() {
+        FloatingToast.prewarm(activity);
+
+        controller.pause().stop().destroy();
+        idle();
+
+        assertEquals(0, ToastWindowPool.size(activity));
+    }
+
+    private void showAndFinish(FloatingToast toast) {
+        toast.show();
+        idle();
+    }
+
+    private void idle() {
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        ShadowLooper.idleMainLooper();
+    }
+}